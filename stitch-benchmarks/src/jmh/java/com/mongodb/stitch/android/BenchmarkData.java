@@ -0,0 +1,65 @@
+package com.mongodb.stitch.android;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BenchmarkData generates payloads shaped like the documents apps typically store in Stitch.
+ * The same seed always yields the same payload so that runs are comparable.
+ */
+final class BenchmarkData {
+    private static final long SEED = 42;
+    private static final String[] TAGS = {"home", "work", "errand", "urgent", "someday", "shared"};
+    private static final JsonWriterSettings EXTENDED_JSON =
+            JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param count The number of documents to generate.
+     * @return Documents of about 300 bytes each, mixing the common BSON types.
+     */
+    static List<Document> documents(final int count) {
+        final Random random = new Random(SEED);
+        final List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final byte[] id = new byte[12];
+            random.nextBytes(id);
+            documents.add(new Document("_id", new ObjectId(id))
+                    .append("owner_id", "5a1f5c7e46224c6ba5bfd2" + String.format("%02x", i % 256))
+                    .append("text", "Item " + i + " of a list that a user scrolls through on a phone")
+                    .append("checked", random.nextBoolean())
+                    .append("priority", random.nextInt(5))
+                    .append("score", random.nextDouble() * 100)
+                    .append("created", new Date(1514764800000L + random.nextInt(Integer.MAX_VALUE)))
+                    .append("tags", Arrays.asList(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]))
+                    .append("location", new Document("lat", random.nextDouble() * 180 - 90)
+                            .append("lng", random.nextDouble() * 360 - 180)));
+        }
+        return documents;
+    }
+
+    /**
+     * @param documents The documents to encode.
+     * @return The documents as an extended JSON array, as Stitch returns them from a find.
+     */
+    static String toJsonArray(final List<Document> documents) {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < documents.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(documents.get(i).toJson(EXTENDED_JSON));
+        }
+        return json.append(']').toString();
+    }
+}
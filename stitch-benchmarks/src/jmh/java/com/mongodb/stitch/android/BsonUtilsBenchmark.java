@@ -0,0 +1,49 @@
+package com.mongodb.stitch.android;
+
+import com.mongodb.stitch.android.http.HttpResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures decoding function results with {@link BsonUtils}, both from a String and streamed
+ * from the raw bytes of a response as the client does.
+ */
+@State(Scope.Benchmark)
+public class BsonUtilsBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int documents;
+
+    private String _json;
+    private HttpResponse _response;
+
+    @Setup
+    public void setUp() {
+        _json = BenchmarkData.toJsonArray(BenchmarkData.documents(documents));
+        _response = new HttpResponse(
+                200, Collections.<String, String>emptyMap(), _json.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Benchmark
+    public Object parseValueFromString() {
+        return BsonUtils.parseValue(_json);
+    }
+
+    @Benchmark
+    public Object parseValueFromResponse() throws Exception {
+        return BsonUtils.parseValue(_response.getBodyAsReader());
+    }
+
+    @Benchmark
+    public List<Object> parseList() {
+        return BsonUtils.parseList(_json);
+    }
+}
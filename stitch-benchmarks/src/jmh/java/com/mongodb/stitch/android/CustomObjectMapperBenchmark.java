@@ -0,0 +1,34 @@
+package com.mongodb.stitch.android;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures serializing {@link Document}s through the {@link CustomObjectMapper}.
+ */
+@State(Scope.Benchmark)
+public class CustomObjectMapperBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int documents;
+
+    private ObjectMapper _mapper;
+    private Document _document;
+
+    @Setup
+    public void setUp() {
+        _mapper = CustomObjectMapper.createObjectMapper();
+        _document = new Document("documents", BenchmarkData.documents(documents));
+    }
+
+    @Benchmark
+    public String writeDocument() throws Exception {
+        return _mapper.writeValueAsString(_document);
+    }
+}
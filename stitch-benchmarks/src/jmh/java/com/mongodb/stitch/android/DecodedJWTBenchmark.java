@@ -0,0 +1,35 @@
+package com.mongodb.stitch.android;
+
+import com.mongodb.stitch.android.auth.DecodedJWT;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures decoding an access token, which happens on every authenticated request.
+ */
+@State(Scope.Benchmark)
+public class DecodedJWTBenchmark {
+
+    // Header {"alg":"HS256","typ":"JWT"} and a payload shaped like a Stitch access token:
+    // {"exp":1893456000,"iat":1514764800,"sub":"5a1f5c7e46224c6ba5bfd2a7","name":"anon-user",
+    // "typ":"access","user_data":{"name":"anon-user"},"stitch_devId":"5a1f5c7e46224c6ba5bfd2a8",
+    // "stitch_domId":"5a1f5c7e46224c6ba5bfd2a9"}, with an all zero signature
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9." +
+            "eyJleHAiOjE4OTM0NTYwMDAsImlhdCI6MTUxNDc2NDgwMCwic3ViIjoiNWExZjVjN2U0NjIyNGM2YmE1YmZkMmE3Iiwi" +
+            "bmFtZSI6ImFub24tdXNlciIsInR5cCI6ImFjY2VzcyIsInVzZXJfZGF0YSI6eyJuYW1lIjoiYW5vbi11c2VyIn0sInN0" +
+            "aXRjaF9kZXZJZCI6IjVhMWY1YzdlNDYyMjRjNmJhNWJmZDJhOCIsInN0aXRjaF9kb21JZCI6IjVhMWY1YzdlNDYyMjRj" +
+            "NmJhNWJmZDJhOSJ9." +
+            "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    @Benchmark
+    public DecodedJWT decode() {
+        return new DecodedJWT(TOKEN);
+    }
+
+    @Benchmark
+    public boolean decodeAndCheckExpiry() {
+        return new DecodedJWT(TOKEN).isExpired();
+    }
+}
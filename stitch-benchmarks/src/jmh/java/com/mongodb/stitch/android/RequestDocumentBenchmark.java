@@ -0,0 +1,85 @@
+package com.mongodb.stitch.android;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Measures building and encoding the request bodies of MongoClient operations. The documents
+ * are built the way MongoClient.Collection and StitchClient.getFunctionCallDocument build them,
+ * since those classes need a device to run. The {@code Bytes} variants encode the way requests
+ * are sent, straight to UTF-8 with {@link BsonUtils#toJsonBytes(Document)}, while the others
+ * measure {@link Document#toJson()} for comparison.
+ */
+@State(Scope.Benchmark)
+public class RequestDocumentBenchmark {
+    private static final String SERVICE = "mongodb-atlas";
+    private static final String DATABASE = "todo";
+    private static final String COLLECTION = "items";
+
+    @Param({"1", "100", "10000"})
+    public int documents;
+
+    private List<Document> _documents;
+    private Document _query;
+    private Document _projection;
+
+    @Setup
+    public void setUp() {
+        _documents = BenchmarkData.documents(documents);
+        _query = new Document("owner_id", "5a1f5c7e46224c6ba5bfd2a7")
+                .append("checked", false)
+                .append("tags", new Document("$in", asList("home", "urgent")));
+        _projection = new Document("text", 1).append("checked", 1);
+    }
+
+    @Benchmark
+    public String findRequest() {
+        return getFindCall().toJson();
+    }
+
+    @Benchmark
+    public byte[] findRequestBytes() {
+        return BsonUtils.toJsonBytes(getFindCall());
+    }
+
+    @Benchmark
+    public String insertManyRequest() {
+        return getInsertManyCall().toJson();
+    }
+
+    @Benchmark
+    public byte[] insertManyRequestBytes() {
+        return BsonUtils.toJsonBytes(getInsertManyCall());
+    }
+
+    private Document getFindCall() {
+        final Document doc = new Document("query", _query);
+        doc.put("database", DATABASE);
+        doc.put("collection", COLLECTION);
+        doc.put("limit", documents);
+        doc.put("project", _projection);
+        return getFunctionCallDocument("find", doc);
+    }
+
+    private Document getInsertManyCall() {
+        final Document doc = new Document("documents", _documents);
+        doc.put("database", DATABASE);
+        doc.put("collection", COLLECTION);
+        return getFunctionCallDocument("insertMany", doc);
+    }
+
+    private static Document getFunctionCallDocument(final String name, final Object... args) {
+        final Document doc = new Document("name", name);
+        doc.put("arguments", asList(args));
+        doc.put("service", SERVICE);
+        return doc;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mongodb.stitch.android;
+
+import com.mongodb.stitch.android.http.ContentTypes;
+import com.mongodb.stitch.android.http.Headers;
+import com.mongodb.stitch.android.http.HttpResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+
+/**
+ * Measures turning unsuccessful responses into exceptions with {@link StitchError}.
+ */
+@State(Scope.Benchmark)
+public class StitchErrorBenchmark {
+
+    private HttpResponse _jsonError;
+    private HttpResponse _plainError;
+
+    @Setup
+    public void setUp() {
+        final Charset utf8 = Charset.forName("UTF-8");
+        _jsonError = new HttpResponse(
+                401,
+                Collections.singletonMap(Headers.CONTENT_TYPE, ContentTypes.APPLICATION_JSON),
+                "{\"error\":\"invalid session: access token expired\",\"error_code\":\"InvalidSession\"}".getBytes(utf8));
+        _plainError = new HttpResponse(
+                502,
+                Collections.singletonMap(Headers.CONTENT_TYPE, "text/plain"),
+                "Bad Gateway".getBytes(utf8));
+    }
+
+    @Benchmark
+    public StitchException parseJsonError() {
+        return StitchError.parseRequestError(_jsonError);
+    }
+
+    @Benchmark
+    public StitchException parsePlainError() {
+        return StitchError.parseRequestError(_plainError);
+    }
+}
@@ -2,7 +2,7 @@ package com.mongodb.stitch.android;
 
 /**
  * An AuthListener provides an observer interface for users to listen in on auth
- * events from a {@link StitchClient}.
+ * events from a {@code StitchClient}.
  */
 public interface AuthListener {
 
@@ -0,0 +1,120 @@
+package com.mongodb.stitch.android;
+
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.BsonValueCodecProvider;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.DocumentCodecProvider;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.IterableCodecProvider;
+import org.bson.codecs.ValueCodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonReader;
+import org.bson.json.JsonWriter;
+import org.bson.json.JsonWriterSettings;
+
+import java.io.Reader;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+
+public class BsonUtils extends RuntimeException {
+    private static final CodecRegistry DEFAULT_CODEC_REGISTRY = fromProviders(asList(
+            new IterableCodecProvider(),
+            new ValueCodecProvider(),
+            new BsonValueCodecProvider(),
+            new DocumentCodecProvider()));
+    private static final BsonTypeClassMap DEFAULT_BSON_TYPE_CLASS_MAP = new BsonTypeClassMap();
+    private static final BsonTypeCodecMap DEFAULT_BSON_TYPE_CODEC_MAP =
+            new BsonTypeCodecMap(DEFAULT_BSON_TYPE_CLASS_MAP, DEFAULT_CODEC_REGISTRY);
+
+    // Document#toJson() builds new settings and a new codec on every call; these produce the
+    // same output and are immutable, so they are built once
+    @SuppressWarnings("deprecation")
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS =
+            JsonWriterSettings.builder().outputMode(JsonMode.STRICT).build();
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+
+    public static Iterable parseIterable(final String json) {
+        return parseIterable(new JsonReader(json));
+    }
+
+    public static Iterable parseIterable(final Reader json) {
+        return parseIterable(new JsonReader(json));
+    }
+
+    private static Iterable parseIterable(final JsonReader bsonReader) {
+        final Object decoded = DEFAULT_BSON_TYPE_CODEC_MAP.get(BsonType.ARRAY).decode(bsonReader, DecoderContext.builder().build());
+        return (Iterable) decoded;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> parseList(final String json) {
+        return (List<Object>) parseIterable(json);
+    }
+
+    public static Object parseValue(final String json) {
+        return parseValue(new JsonReader(json));
+    }
+
+    /**
+     * Parses an extended JSON value as it is read, avoiding the need to hold the entire
+     * document in memory as a String first.
+     *
+     * @param json A reader over the extended JSON to parse.
+     * @return The decoded value.
+     */
+    public static Object parseValue(final Reader json) {
+        return parseValue(new JsonReader(json));
+    }
+
+    /**
+     * Encodes a document as extended JSON in the format of {@link Document#toJson()}, writing
+     * UTF-8 bytes as it goes rather than building a String first.
+     *
+     * @param document The document to encode.
+     * @return The UTF-8 encoded extended JSON.
+     */
+    public static byte[] toJsonBytes(final Document document) {
+        final Utf8Writer writer = new Utf8Writer();
+        writeJson(writer, document);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encodes documents as an extended JSON array in the format of {@link Document#toJson()},
+     * writing UTF-8 bytes as it goes rather than building a String first.
+     *
+     * @param documents The documents to encode.
+     * @return The UTF-8 encoded extended JSON array.
+     */
+    public static byte[] toJsonBytes(final List<Document> documents) {
+        final Utf8Writer writer = new Utf8Writer();
+        writer.write('[');
+        for (int i = 0; i < documents.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJson(writer, documents.get(i));
+        }
+        writer.write(']');
+        return writer.toByteArray();
+    }
+
+    private static void writeJson(final Utf8Writer writer, final Document document) {
+        DOCUMENT_CODEC.encode(new JsonWriter(writer, JSON_WRITER_SETTINGS), document, ENCODER_CONTEXT);
+    }
+
+    private static Object parseValue(final JsonReader bsonReader) {
+        bsonReader.readBsonType();
+        final Object decoded = DEFAULT_BSON_TYPE_CODEC_MAP.get(bsonReader.getCurrentBsonType()).decode(
+                bsonReader, DecoderContext.builder().build());
+        return decoded;
+    }
+}
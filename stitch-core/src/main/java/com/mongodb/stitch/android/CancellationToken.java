@@ -0,0 +1,67 @@
+package com.mongodb.stitch.android;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A CancellationToken is handed to requests so that they can be cancelled through the
+ * {@link CancellationTokenSource} that created it. Cancelling stops the underlying HTTP request
+ * and fails the request's task with a {@link StitchException.StitchCancellationException}.
+ *
+ * A single token may be shared by all requests made on behalf of a screen so that they can be
+ * cancelled together when the screen goes away.
+ */
+public class CancellationToken {
+    private final List<Runnable> _listeners;
+    private boolean _cancellationRequested;
+
+    CancellationToken() {
+        _listeners = new ArrayList<>();
+    }
+
+    /**
+     * @return Whether or not cancellation has been requested.
+     */
+    public synchronized boolean isCancellationRequested() {
+        return _cancellationRequested;
+    }
+
+    /**
+     * Adds a listener to be run once cancellation is requested. If it already has been, the
+     * listener is run right away.
+     *
+     * @param listener The listener to run.
+     */
+    void addListener(final Runnable listener) {
+        synchronized (this) {
+            if (!_cancellationRequested) {
+                _listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * @param listener A listener previously added that no longer needs to run.
+     */
+    synchronized void removeListener(final Runnable listener) {
+        _listeners.remove(listener);
+    }
+
+    void cancel() {
+        final List<Runnable> listeners;
+        synchronized (this) {
+            if (_cancellationRequested) {
+                return;
+            }
+            _cancellationRequested = true;
+            listeners = new ArrayList<>(_listeners);
+            _listeners.clear();
+        }
+
+        for (final Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mongodb.stitch.android;
+
+/**
+ * A CancellationTokenSource creates a {@link CancellationToken} and cancels the requests it was
+ * handed to.
+ */
+public class CancellationTokenSource {
+    private final CancellationToken _token;
+
+    public CancellationTokenSource() {
+        _token = new CancellationToken();
+    }
+
+    /**
+     * @return The token to hand to requests that should be cancelled by this source.
+     */
+    public CancellationToken getToken() {
+        return _token;
+    }
+
+    /**
+     * Cancels all requests that were handed the token of this source, as well as any that are
+     * handed it from now on.
+     */
+    public void cancel() {
+        _token.cancel();
+    }
+}
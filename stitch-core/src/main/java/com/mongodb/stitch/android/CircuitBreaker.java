@@ -0,0 +1,134 @@
+package com.mongodb.stitch.android;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker tracks the health of a single route. After a number of consecutive transient
+ * failures the circuit opens and requests fail fast instead of waiting out their timeouts.
+ * Once the circuit has been open for a while it half-opens and lets a single probe through;
+ * the outcome of the probe decides whether the circuit closes again or stays open.
+ */
+class CircuitBreaker {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    static final long DEFAULT_OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int _failureThreshold;
+    private final long _openMillis;
+
+    private State _state;
+    private int _consecutiveFailures;
+    private long _openedAtMillis;
+    private long _probeStartedAtMillis;
+
+    CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS);
+    }
+
+    /**
+     * @param failureThreshold The number of consecutive failures that open the circuit.
+     * @param openMillis       How long the circuit stays open before a probe is let through.
+     */
+    CircuitBreaker(final int failureThreshold, final long openMillis) {
+        _failureThreshold = failureThreshold;
+        _openMillis = openMillis;
+        _state = State.CLOSED;
+    }
+
+    /**
+     * @return The current state of the circuit.
+     */
+    synchronized State getState() {
+        return _state;
+    }
+
+    /**
+     * Asks to send a request through the circuit.
+     *
+     * @return Whether or not the request may be sent.
+     */
+    synchronized boolean tryAcquire() {
+        final long now = System.currentTimeMillis();
+        switch (_state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - _openedAtMillis < _openMillis) {
+                    return false;
+                }
+                _state = State.HALF_OPEN;
+                _probeStartedAtMillis = now;
+                return true;
+            case HALF_OPEN:
+            default:
+                // A probe that never reports back, e.g. because it was cancelled, must not
+                // keep the circuit half-open forever
+                if (now - _probeStartedAtMillis < _openMillis) {
+                    return false;
+                }
+                _probeStartedAtMillis = now;
+                return true;
+        }
+    }
+
+    /**
+     * @return Whether or not a request would currently be failed fast. Unlike
+     * {@link #tryAcquire()}, this does not let a probe through.
+     */
+    synchronized boolean isRejecting() {
+        final long now = System.currentTimeMillis();
+        switch (_state) {
+            case CLOSED:
+                return false;
+            case OPEN:
+                return now - _openedAtMillis < _openMillis;
+            case HALF_OPEN:
+            default:
+                return now - _probeStartedAtMillis < _openMillis;
+        }
+    }
+
+    /**
+     * @return How long until a request will be let through again.
+     */
+    synchronized long getRetryAfterMillis() {
+        final long startedAtMillis = _state == State.HALF_OPEN ? _probeStartedAtMillis : _openedAtMillis;
+        return Math.max(0, startedAtMillis + _openMillis - System.currentTimeMillis());
+    }
+
+    /**
+     * Records the outcome of a request sent through the circuit.
+     *
+     * @param error The error the request failed with, or null if it succeeded.
+     */
+    synchronized void onComplete(final Exception error) {
+        if (error == null || !isTransient(error)) {
+            // Any answer that is not a sign of a struggling backend shows the route is healthy
+            _state = State.CLOSED;
+            _consecutiveFailures = 0;
+            return;
+        }
+
+        _consecutiveFailures++;
+        if (_state == State.HALF_OPEN || _consecutiveFailures >= _failureThreshold) {
+            _state = State.OPEN;
+            _openedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    private static boolean isTransient(final Exception error) {
+        if (error instanceof StitchException.StitchServiceException) {
+            final int statusCode = ((StitchException.StitchServiceException) error).getStatusCode();
+            return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HTTP_SERVER_ERROR;
+        }
+        return error instanceof StitchException.StitchRequestException;
+    }
+}
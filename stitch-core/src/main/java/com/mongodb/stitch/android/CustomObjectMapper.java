@@ -19,6 +19,10 @@ import java.io.IOException;
  */
 class CustomObjectMapper {
 
+    // Immutable, so one instance serves every Document serialized
+    private static final JsonWriterSettings EXTENDED_JSON_SETTINGS =
+            JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
     private static ObjectMapper _singleton;
 
     public static ObjectMapper createObjectMapper() {
@@ -33,9 +37,7 @@ class CustomObjectMapper {
                             final JsonGenerator jsonGenerator,
                             final SerializerProvider provider
                     ) throws IOException {
-                        final JsonWriterSettings writerSettings =
-                                JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
-                        jsonGenerator.writeRawValue(value.toJson(writerSettings));
+                        jsonGenerator.writeRawValue(value.toJson(EXTENDED_JSON_SETTINGS));
                     }
                 })
                 .addSerializer(ObjectId.class, new JsonSerializer<ObjectId>() {
@@ -0,0 +1,162 @@
+package com.mongodb.stitch.android;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A LatencyHistogram records durations into logarithmic buckets so that percentiles can be read
+ * in constant memory. Every power of two is split into {@value #SUB_BUCKETS} buckets, which
+ * bounds the error of a reported percentile to about 3%. Durations are recorded with microsecond
+ * resolution up to about 19 hours; longer durations are recorded as the maximum.
+ *
+ * Recording is lock free and may happen from any thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE_MICROS = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray _counts;
+    private final AtomicLong _count;
+    private final AtomicLong _sumMicros;
+    private final AtomicLong _maxMicros;
+
+    LatencyHistogram() {
+        _counts = new AtomicLongArray(BUCKET_COUNT);
+        _count = new AtomicLong();
+        _sumMicros = new AtomicLong();
+        _maxMicros = new AtomicLong();
+    }
+
+    /**
+     * @param duration The duration to record.
+     * @param unit     The unit of the duration.
+     */
+    void record(final long duration, final TimeUnit unit) {
+        final long micros = Math.min(Math.max(unit.toMicros(duration), 0), MAX_VALUE_MICROS);
+        _counts.incrementAndGet(getBucket(micros));
+        _count.incrementAndGet();
+        _sumMicros.addAndGet(micros);
+
+        long max = _maxMicros.get();
+        while (micros > max && !_maxMicros.compareAndSet(max, micros)) {
+            max = _maxMicros.get();
+        }
+    }
+
+    /**
+     * @return A copy of the durations recorded so far.
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = _counts.get(i);
+            count += counts[i];
+        }
+        // Read from the buckets so that the count agrees with them under concurrent recording
+        return new Snapshot(counts, count, _sumMicros.get(), _maxMicros.get());
+    }
+
+    private static int getBucket(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        final int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The value in the middle of a bucket, in microseconds.
+     */
+    private static long getBucketValue(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + ((1L << shift) >> 1);
+    }
+
+    /**
+     * Snapshot is an immutable copy of the durations recorded by a {@link LatencyHistogram}.
+     */
+    public static class Snapshot {
+        private final long[] _counts;
+        private final long _count;
+        private final long _sumMicros;
+        private final long _maxMicros;
+
+        private Snapshot(final long[] counts, final long count, final long sumMicros, final long maxMicros) {
+            _counts = counts;
+            _count = count;
+            _sumMicros = sumMicros;
+            _maxMicros = maxMicros;
+        }
+
+        /**
+         * @return The number of durations recorded.
+         */
+        public long getCount() {
+            return _count;
+        }
+
+        /**
+         * @param unit The unit to express the mean in.
+         * @return The mean of the durations recorded, or 0 if there are none.
+         */
+        public long getMean(final TimeUnit unit) {
+            return _count == 0 ? 0 : unit.convert(_sumMicros / _count, TimeUnit.MICROSECONDS);
+        }
+
+        /**
+         * @param unit The unit to express the maximum in.
+         * @return The longest duration recorded, or 0 if there are none.
+         */
+        public long getMax(final TimeUnit unit) {
+            return unit.convert(_maxMicros, TimeUnit.MICROSECONDS);
+        }
+
+        /**
+         * @param percentile The percentile to read, between 0 and 100, e.g. 99 for the p99.
+         * @param unit       The unit to express the duration in.
+         * @return The duration that the given percentage of recorded durations did not exceed,
+         * or 0 if there are none.
+         */
+        public long getPercentile(final double percentile, final TimeUnit unit) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            if (_count == 0) {
+                return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * _count));
+            long seen = 0;
+            for (int i = 0; i < _counts.length; i++) {
+                seen += _counts[i];
+                if (seen >= rank) {
+                    final long micros = Math.min(getBucketValue(i), _maxMicros);
+                    return unit.convert(micros, TimeUnit.MICROSECONDS);
+                }
+            }
+            return getMax(unit);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "count=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                    _count,
+                    getMean(TimeUnit.MICROSECONDS) / 1e3,
+                    getPercentile(50, TimeUnit.MICROSECONDS) / 1e3,
+                    getPercentile(95, TimeUnit.MICROSECONDS) / 1e3,
+                    getPercentile(99, TimeUnit.MICROSECONDS) / 1e3,
+                    getMax(TimeUnit.MICROSECONDS) / 1e3);
+        }
+    }
+}
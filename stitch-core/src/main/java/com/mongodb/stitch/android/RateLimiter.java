@@ -0,0 +1,146 @@
+package com.mongodb.stitch.android;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter is a token bucket that smooths bursts of requests to Stitch so that they stay
+ * within the app's request quota. The bucket holds up to a burst of permits and refills at a
+ * steady rate; a request that finds the bucket empty is queued until a permit is available
+ * rather than failed. Every attempt of a request, retries included, takes a permit. A request
+ * that would have to wait longer than the limiter's maximum wait is failed right away instead,
+ * which bounds how far the bucket can go into debt.
+ *
+ * A limiter is stateful. Installing the same limiter for several routes or services makes them
+ * share one budget.
+ */
+public class RateLimiter {
+    private final double _permitsPerSecond;
+    private final int _burst;
+    private final long _maxWaitNanos;
+
+    private double _availablePermits;
+    private long _lastRefillNanos;
+
+    private RateLimiter(final Builder builder) {
+        _permitsPerSecond = builder._permitsPerSecond;
+        _burst = builder._burst;
+        _maxWaitNanos = builder._maxWaitNanos;
+        _availablePermits = _burst;
+        _lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * @return The steady rate at which permits are handed out.
+     */
+    public double getPermitsPerSecond() {
+        return _permitsPerSecond;
+    }
+
+    /**
+     * @return The number of permits that can be handed out at once after a quiet period.
+     */
+    public int getBurst() {
+        return _burst;
+    }
+
+    /**
+     * @return The longest a request may wait for a permit before it is failed instead.
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(_maxWaitNanos);
+    }
+
+    /**
+     * Reserves a permit, which may be in the future if the bucket is empty.
+     *
+     * @return How long to wait before the reserved permit may be used, in nanoseconds, or -1 if
+     * the wait would exceed the maximum wait, in which case no permit is reserved.
+     */
+    synchronized long reserve() {
+        final long now = System.nanoTime();
+        final double refilled = (now - _lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1) * _permitsPerSecond;
+        _availablePermits = Math.min(_burst, _availablePermits + refilled);
+        _lastRefillNanos = now;
+
+        // Permits go into debt so that queued requests are spaced out at the steady rate
+        final double remaining = _availablePermits - 1;
+        if (remaining >= 0) {
+            _availablePermits = remaining;
+            return 0;
+        }
+
+        final long waitNanos = (long) (-remaining / _permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        if (waitNanos > _maxWaitNanos) {
+            return -1;
+        }
+        _availablePermits = remaining;
+        return waitNanos;
+    }
+
+    /**
+     * Gives back a reserved permit that will not be used, e.g. because its request was
+     * cancelled while waiting for it, so that it does not delay later requests.
+     */
+    synchronized void refund() {
+        _availablePermits = Math.min(_burst, _availablePermits + 1);
+    }
+
+    /**
+     * @return A builder initialized with the configuration of this limiter.
+     */
+    public Builder newBuilder() {
+        return new Builder()
+                .withPermitsPerSecond(_permitsPerSecond)
+                .withBurst(_burst)
+                .withMaxWait(_maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static class Builder {
+        private double _permitsPerSecond = 10;
+        private int _burst = 10;
+        private long _maxWaitNanos = TimeUnit.SECONDS.toNanos(10);
+
+        /**
+         * @param permitsPerSecond The steady rate at which permits are handed out.
+         * @return This builder.
+         */
+        public Builder withPermitsPerSecond(final double permitsPerSecond) {
+            if (!(permitsPerSecond > 0)) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive");
+            }
+            _permitsPerSecond = permitsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param burst The number of permits that can be handed out at once after a quiet
+         *              period.
+         * @return This builder.
+         */
+        public Builder withBurst(final int burst) {
+            if (burst <= 0) {
+                throw new IllegalArgumentException("burst must be positive");
+            }
+            _burst = burst;
+            return this;
+        }
+
+        /**
+         * @param duration The longest a request may wait for a permit before it is failed
+         *                 with a {@link StitchException.StitchRateLimitedException} instead.
+         * @param unit     The unit of the duration.
+         * @return This builder.
+         */
+        public Builder withMaxWait(final long duration, final TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration must not be negative");
+            }
+            _maxWaitNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
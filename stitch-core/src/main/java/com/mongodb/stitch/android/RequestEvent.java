@@ -0,0 +1,198 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.Nullable;
+
+import com.mongodb.stitch.android.http.Method;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A RequestEvent describes a phase in the lifecycle of a request made by a {@code StitchClient}.
+ * The duration of an event depends on its {@link Type}.
+ */
+public class RequestEvent {
+
+    /**
+     * The phases of a request.
+     */
+    public enum Type {
+        /**
+         * The request was made. Its duration is always zero.
+         */
+        ENQUEUED,
+
+        /**
+         * An attempt of the request was queued by a {@link RateLimiter}. Its duration is how
+         * long the attempt will wait for a permit.
+         */
+        THROTTLED,
+
+        /**
+         * An attempt of the request was handed to the transport. Its duration is how long the
+         * request waited in the client beforehand, e.g. for a retry backoff, a token refresh or a
+         * rate limiter.
+         */
+        DISPATCHED,
+
+        /**
+         * The transport answered an attempt, with either a response or an error. Its duration is
+         * the time since the attempt was dispatched, covering the transport's own queue and the
+         * network. Responses are buffered by the transport, so this is when the last byte of the
+         * response was received.
+         */
+        RESPONSE_RECEIVED,
+
+        /**
+         * A failed attempt will be retried. Its duration is the backoff before the next attempt.
+         */
+        RETRY_SCHEDULED,
+
+        /**
+         * The access token was refreshed so that the request could be replayed. Its duration is
+         * the time since the expired token was detected.
+         */
+        TOKEN_REFRESHED,
+
+        /**
+         * The request completed, successfully or not. Its duration is the time since the
+         * request was made.
+         */
+        COMPLETED,
+
+        /**
+         * The body of a response was decoded. Its duration is the time spent decoding. A
+         * response shared by several identical requests is decoded once for each of them.
+         */
+        DECODED,
+
+        /**
+         * A response was served from the response cache, either because it was still fresh or
+         * because Stitch confirmed it was unchanged. Its duration is always zero.
+         */
+        CACHE_HIT,
+
+        /**
+         * A response that could have been served from the response cache had to be fetched in
+         * full. Its duration is always zero.
+         */
+        CACHE_MISS
+    }
+
+    private final Type _type;
+    private final int _method;
+    private final String _route;
+    @Nullable
+    private final String _operation;
+    private final int _attempt;
+    private final long _bytesSent;
+    private final long _bytesReceived;
+    private final long _durationNanos;
+    @Nullable
+    private final Exception _error;
+
+    RequestEvent(
+            final Type type,
+            final int method,
+            final String route,
+            @Nullable final String operation,
+            final int attempt,
+            final long bytesSent,
+            final long bytesReceived,
+            final long durationNanos,
+            @Nullable final Exception error
+    ) {
+        _type = type;
+        _method = method;
+        _route = route;
+        _operation = operation;
+        _attempt = attempt;
+        _bytesSent = bytesSent;
+        _bytesReceived = bytesReceived;
+        _durationNanos = durationNanos;
+        _error = error;
+    }
+
+    /**
+     * @return The phase the request reached.
+     */
+    public Type getType() {
+        return _type;
+    }
+
+    /**
+     * @return The HTTP method of the request as one of the {@link Method} constants.
+     */
+    public int getMethod() {
+        return _method;
+    }
+
+    /**
+     * @return The resource the request targets, relative to the client API.
+     */
+    public String getRoute() {
+        return _route;
+    }
+
+    /**
+     * @return The name of the function the request calls, e.g. one of the {@code find},
+     * {@code count}, {@code insertOne}, {@code updateOne} or {@code deleteMany} operations of a
+     * {@code MongoClient}, or null if the request
+     * is not a single function call.
+     */
+    @Nullable
+    public String getOperation() {
+        return _operation;
+    }
+
+    /**
+     * @return The number of attempts dispatched so far, or 0 if there have been none.
+     */
+    public int getAttempt() {
+        return _attempt;
+    }
+
+    /**
+     * @return The size of the body of the latest attempt in bytes.
+     */
+    public long getBytesSent() {
+        return _bytesSent;
+    }
+
+    /**
+     * @return The size of the body of the response in bytes, or 0 if there is none yet.
+     */
+    public long getBytesReceived() {
+        return _bytesReceived;
+    }
+
+    /**
+     * @param unit The unit to express the duration in.
+     * @return The duration of the event, whose meaning depends on its {@link Type}.
+     */
+    public long getDuration(final TimeUnit unit) {
+        return unit.convert(_durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The error an attempt or the request failed with, if any.
+     */
+    @Nullable
+    public Exception getError() {
+        return _error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s %s %s%s attempt=%d sent=%d received=%d duration=%.3fms%s",
+                _type,
+                Method.getName(_method),
+                _route,
+                _operation == null ? "" : " (" + _operation + ")",
+                _attempt,
+                _bytesSent,
+                _bytesReceived,
+                _durationNanos / 1e6,
+                _error == null ? "" : " error=" + _error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.mongodb.stitch.android;
+
+/**
+ * A RequestEventListener provides an observer interface for users to listen in on the
+ * lifecycle of requests made by a {@code StitchClient}, e.g. to attribute latency between
+ * queueing, the network and decoding.
+ *
+ * Events are delivered synchronously on whichever thread the request happens to be on, which
+ * may be the main thread, so listeners should return quickly.
+ */
+public interface RequestEventListener {
+
+    /**
+     * Called when a request reaches a new phase of its lifecycle.
+     *
+     * @param event The event describing the phase.
+     */
+    void onRequestEvent(RequestEvent event);
+}
@@ -0,0 +1,269 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.Nullable;
+
+import com.mongodb.stitch.android.http.Priority;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RequestOptions describes how a request to Stitch may be executed.
+ */
+public class RequestOptions {
+
+    /**
+     * The options used when none are specified.
+     */
+    public static final RequestOptions DEFAULT = new Builder().build();
+
+    /**
+     * The options for requests that only read data.
+     */
+    public static final RequestOptions IDEMPOTENT_READ = new Builder().withIdempotentRead(true).build();
+
+    private final boolean _idempotentRead;
+    @Nullable
+    private final String _idempotencyKey;
+    @Nullable
+    private final RetryPolicy _retryPolicy;
+    private final Priority _priority;
+    @Nullable
+    private final CancellationToken _cancellationToken;
+    private final long _deadlineMillis;
+    private final boolean _replayable;
+    @Nullable
+    private final String _operation;
+    @Nullable
+    private final String _service;
+
+    private RequestOptions(final Builder builder) {
+        _idempotentRead = builder._idempotentRead;
+        _idempotencyKey = builder._idempotencyKey;
+        _retryPolicy = builder._retryPolicy;
+        _priority = builder._priority;
+        _cancellationToken = builder._cancellationToken;
+        _deadlineMillis = builder._deadlineMillis;
+        _replayable = builder._replayable;
+        _operation = builder._operation;
+        _service = builder._service;
+    }
+
+    /**
+     * @return Whether or not the request only reads data. Identical idempotent reads that are
+     * in flight at the same time share a single network request and its result.
+     */
+    public boolean isIdempotentRead() {
+        return _idempotentRead;
+    }
+
+    /**
+     * @return The key identifying a write to Stitch so that repeated attempts of it are only
+     * applied once, or null if the request has none.
+     */
+    @Nullable
+    public String getIdempotencyKey() {
+        return _idempotencyKey;
+    }
+
+    /**
+     * @return The policy to retry the request with, or null to use the client's policy.
+     */
+    @Nullable
+    public RetryPolicy getRetryPolicy() {
+        return _retryPolicy;
+    }
+
+    /**
+     * @return The priority of the request relative to other pending requests.
+     */
+    public Priority getPriority() {
+        return _priority;
+    }
+
+    /**
+     * @return The token the request can be cancelled through, or null if it has none.
+     */
+    @Nullable
+    public CancellationToken getCancellationToken() {
+        return _cancellationToken;
+    }
+
+    /**
+     * @return How long after it is made the request is cancelled if it has not completed, or 0
+     * if it has no deadline. The deadline covers all retries of the request.
+     */
+    public long getDeadlineMillis() {
+        return _deadlineMillis;
+    }
+
+    /**
+     * @return Whether or not the write may be queued in the client's {@code Outbox} and replayed
+     * later if Stitch cannot be reached.
+     */
+    public boolean isReplayable() {
+        return _replayable;
+    }
+
+    /**
+     * @return The name of the function the request calls, used to label its events, or null if
+     * it is not a single function call.
+     */
+    @Nullable
+    String getOperation() {
+        return _operation;
+    }
+
+    /**
+     * @return The name of the service whose function the request calls, or null if it does not
+     * call a service function.
+     */
+    @Nullable
+    String getService() {
+        return _service;
+    }
+
+    /**
+     * @return Whether or not the request can be cancelled through a token or deadline.
+     */
+    public boolean isCancellable() {
+        return _cancellationToken != null || _deadlineMillis > 0;
+    }
+
+    /**
+     * @return Whether or not the request may be retried at all. Writes with an idempotency key
+     * are only retried after failures that show they were not applied.
+     */
+    public boolean isRetryable() {
+        return _idempotentRead || _idempotencyKey != null;
+    }
+
+    /**
+     * @return A builder initialized with these options.
+     */
+    public Builder newBuilder() {
+        return new Builder()
+                .withIdempotentRead(_idempotentRead)
+                .withIdempotencyKey(_idempotencyKey)
+                .withRetryPolicy(_retryPolicy)
+                .withPriority(_priority)
+                .withCancellationToken(_cancellationToken)
+                .withDeadline(_deadlineMillis, TimeUnit.MILLISECONDS)
+                .withReplayable(_replayable)
+                .withOperation(_operation)
+                .withService(_service);
+    }
+
+    public static class Builder {
+        private boolean _idempotentRead;
+        private String _idempotencyKey;
+        private RetryPolicy _retryPolicy;
+        private Priority _priority = Priority.NORMAL;
+        private CancellationToken _cancellationToken;
+        private long _deadlineMillis;
+        private boolean _replayable;
+        private String _operation;
+        private String _service;
+
+        /**
+         * @param idempotentRead Whether or not the request only reads data.
+         * @return This builder.
+         */
+        public Builder withIdempotentRead(final boolean idempotentRead) {
+            _idempotentRead = idempotentRead;
+            return this;
+        }
+
+        /**
+         * Sets a key identifying a write. A write is only retried if it has an idempotency key,
+         * which must be unique to the write and the same for every attempt of it. The key is
+         * sent with every attempt, but Stitch does not deduplicate writes by it, so keyed writes
+         * are only retried after failures that show they were not applied (see
+         * {@link RetryPolicy#isNotApplied(Exception)}).
+         *
+         * @param idempotencyKey The key identifying the write, e.g. a random UUID.
+         * @return This builder.
+         */
+        public Builder withIdempotencyKey(@Nullable final String idempotencyKey) {
+            _idempotencyKey = idempotencyKey;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy The policy to retry the request with, or null to use the client's.
+         * @return This builder.
+         */
+        public Builder withRetryPolicy(@Nullable final RetryPolicy retryPolicy) {
+            _retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param priority The priority of the request relative to other pending requests.
+         * @return This builder.
+         */
+        public Builder withPriority(final Priority priority) {
+            _priority = priority;
+            return this;
+        }
+
+        /**
+         * @param cancellationToken The token the request can be cancelled through, or null.
+         * @return This builder.
+         */
+        public Builder withCancellationToken(@Nullable final CancellationToken cancellationToken) {
+            _cancellationToken = cancellationToken;
+            return this;
+        }
+
+        /**
+         * @param duration How long after it is made the request is cancelled if it has not
+         *                 completed, or 0 for no deadline.
+         * @param unit     The unit of the duration.
+         * @return This builder.
+         */
+        public Builder withDeadline(final long duration, final TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration must not be negative");
+            }
+            _deadlineMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Marks a write as replayable. A replayable write that cannot reach Stitch is persisted
+         * in the client's {@code Outbox} and replayed in order once connectivity returns. It is
+         * given an idempotency key if it has none. Stitch does not deduplicate writes by it, so
+         * a write is only queued after failures that show it was not applied; see
+         * {@link RetryPolicy#isNotApplied(Exception)}.
+         *
+         * @param replayable Whether or not the write may be queued and replayed later.
+         * @return This builder.
+         */
+        public Builder withReplayable(final boolean replayable) {
+            _replayable = replayable;
+            return this;
+        }
+
+        /**
+         * @param operation The name of the function the request calls, or null.
+         * @return This builder.
+         */
+        Builder withOperation(@Nullable final String operation) {
+            _operation = operation;
+            return this;
+        }
+
+        /**
+         * @param service The name of the service whose function the request calls, or null.
+         * @return This builder.
+         */
+        Builder withService(@Nullable final String service) {
+            _service = service;
+            return this;
+        }
+
+        public RequestOptions build() {
+            return new RequestOptions(this);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.mongodb.stitch.android;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RetryPolicy describes how failed requests to Stitch are retried. Retries are spaced out with
+ * exponential backoff and jitter so that many clients recovering from the same outage do not
+ * retry in lockstep.
+ *
+ * Reads are retried after any transient failure. Writes are only retried if they carry an
+ * idempotency key (see {@link RequestOptions.Builder#withIdempotencyKey(String)}), and then only
+ * after failures that show Stitch never applied them, since Stitch does not deduplicate writes
+ * by their key: the connection could not be established, or Stitch rejected the request with a
+ * 429 Too Many Requests.
+ */
+public class RetryPolicy {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    /**
+     * A policy that never retries.
+     */
+    public static final RetryPolicy NONE = new Builder().withMaxRetries(0).build();
+
+    /**
+     * The policy used when none is configured.
+     */
+    public static final RetryPolicy DEFAULT = new Builder().build();
+
+    private final int _maxRetries;
+    private final long _initialBackoffMillis;
+    private final long _maxBackoffMillis;
+
+    private RetryPolicy(final Builder builder) {
+        _maxRetries = builder._maxRetries;
+        _initialBackoffMillis = builder._initialBackoffMillis;
+        _maxBackoffMillis = builder._maxBackoffMillis;
+    }
+
+    /**
+     * @return The maximum number of times a request is retried.
+     */
+    public int getMaxRetries() {
+        return _maxRetries;
+    }
+
+    /**
+     * @return The backoff before the first retry, before jitter is applied.
+     */
+    public long getInitialBackoffMillis() {
+        return _initialBackoffMillis;
+    }
+
+    /**
+     * @return The upper bound on the backoff between retries, before jitter is applied.
+     */
+    public long getMaxBackoffMillis() {
+        return _maxBackoffMillis;
+    }
+
+    /**
+     * @param retries The number of retries already made.
+     * @param error   The error the last attempt failed with.
+     * @return Whether or not another attempt should be made.
+     */
+    public boolean shouldRetry(final int retries, final Exception error) {
+        if (retries >= _maxRetries || !(error instanceof StitchException.StitchRequestException)) {
+            return false;
+        }
+
+        if (error instanceof StitchException.StitchCircuitOpenException ||
+                error instanceof StitchException.StitchRateLimitedException) {
+            // The route is known to be failing or saturated; retrying would defeat failing fast
+            return false;
+        }
+
+        if (error instanceof StitchException.StitchServiceException) {
+            // Stitch answered; only retry when it signals the failure is transient
+            final int statusCode = ((StitchException.StitchServiceException) error).getStatusCode();
+            return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HTTP_SERVER_ERROR;
+        }
+
+        // The request never got an answer, e.g. a timeout or a dropped connection
+        return true;
+    }
+
+    /**
+     * @param retries The number of retries already made.
+     * @param error   The error the last attempt of a write failed with.
+     * @return Whether or not another attempt of the write should be made.
+     */
+    public boolean shouldRetryWrite(final int retries, final Exception error) {
+        if (retries >= _maxRetries ||
+                error instanceof StitchException.StitchCircuitOpenException ||
+                error instanceof StitchException.StitchRateLimitedException) {
+            return false;
+        }
+        return isNotApplied(error);
+    }
+
+    /**
+     * @param error The error a request failed with.
+     * @return Whether or not the error shows that Stitch cannot have applied the request, so
+     * that sending it again cannot apply it twice. Timeouts and dropped connections are
+     * ambiguous since the request may have reached Stitch before the failure.
+     */
+    public static boolean isNotApplied(final Exception error) {
+        if (error instanceof StitchException.StitchServiceException) {
+            return ((StitchException.StitchServiceException) error).getStatusCode() == HTTP_TOO_MANY_REQUESTS;
+        }
+
+        if (error instanceof StitchException.StitchCircuitOpenException ||
+                error instanceof StitchException.StitchRateLimitedException) {
+            // Failed without being sent
+            return true;
+        }
+
+        if (!(error instanceof StitchException.StitchRequestException)) {
+            return false;
+        }
+
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException ||
+                    cause instanceof UnknownHostException ||
+                    cause instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param retries The number of retries already made.
+     * @param random  The source of jitter.
+     * @return How long to wait before the next attempt.
+     */
+    public long getBackoffMillis(final int retries, final Random random) {
+        final long backoff = Math.min(_initialBackoffMillis << Math.min(retries, 30), _maxBackoffMillis);
+        return backoff / 2 + (long) (random.nextDouble() * (backoff / 2));
+    }
+
+    /**
+     * @return A builder initialized with this policy.
+     */
+    public Builder newBuilder() {
+        return new Builder()
+                .withMaxRetries(_maxRetries)
+                .withInitialBackoffMillis(_initialBackoffMillis)
+                .withMaxBackoffMillis(_maxBackoffMillis);
+    }
+
+    public static class Builder {
+        private int _maxRetries = 3;
+        private long _initialBackoffMillis = 500;
+        private long _maxBackoffMillis = TimeUnit.SECONDS.toMillis(10);
+
+        /**
+         * @param maxRetries The maximum number of times a request is retried.
+         * @return This builder.
+         */
+        public Builder withMaxRetries(final int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries must not be negative");
+            }
+            _maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * @param initialBackoffMillis The backoff before the first retry.
+         * @return This builder.
+         */
+        public Builder withInitialBackoffMillis(final long initialBackoffMillis) {
+            if (initialBackoffMillis <= 0) {
+                throw new IllegalArgumentException("initialBackoffMillis must be positive");
+            }
+            _initialBackoffMillis = initialBackoffMillis;
+            return this;
+        }
+
+        /**
+         * @param maxBackoffMillis The upper bound on the backoff between retries.
+         * @return This builder.
+         */
+        public Builder withMaxBackoffMillis(final long maxBackoffMillis) {
+            if (maxBackoffMillis <= 0) {
+                throw new IllegalArgumentException("maxBackoffMillis must be positive");
+            }
+            _maxBackoffMillis = maxBackoffMillis;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
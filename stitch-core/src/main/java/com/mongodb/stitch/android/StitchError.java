@@ -0,0 +1,120 @@
+package com.mongodb.stitch.android;
+
+import com.mongodb.stitch.android.http.HttpResponse;
+
+import org.bson.Document;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.mongodb.stitch.android.http.ContentTypes.APPLICATION_JSON;
+import static com.mongodb.stitch.android.http.Headers.CONTENT_TYPE;
+
+public class StitchError {
+
+    /**
+     * Parses an unsuccessful response, looking for any embedded errors or codes.
+     *
+     * @param response The unsuccessful response.
+     * @return An exception describing the error.
+     */
+    public static StitchException.StitchRequestException parseRequestError(final HttpResponse response) {
+        return parseRequestError(response, null);
+    }
+
+    /**
+     * Parses an unsuccessful response, looking for any embedded errors or codes.
+     *
+     * @param response The unsuccessful response.
+     * @param cause    The error the transport reported for the response, if it has one. It
+     *                 becomes the cause of the exception when the status is not a 4xx or 5xx.
+     * @return An exception describing the error.
+     */
+    public static StitchException.StitchRequestException parseRequestError(
+            final HttpResponse response,
+            final Throwable cause
+    ) {
+
+        final String data;
+        try {
+            data = response.getBodyAsString();
+        } catch (final UnsupportedEncodingException e) {
+            throw new StitchException.StitchRequestException(e);
+        }
+
+        final String errorMsg;
+
+        // Look for rich error message
+        if (response.getHeaders().containsKey(CONTENT_TYPE) &&
+                response.getHeaders().get(CONTENT_TYPE).equals(APPLICATION_JSON)) {
+            final Document obj;
+            try {
+                obj = Document.parse(data);
+            } catch (final RuntimeException e) {
+                throw new StitchException.StitchRequestException(e);
+            }
+            if (!(obj.get(Fields.ERROR) instanceof String)) {
+                throw new StitchException.StitchRequestException(
+                        String.format("Error response is missing a string '%s' field: %s", Fields.ERROR, data));
+            }
+            errorMsg = obj.getString(Fields.ERROR);
+            if (obj.get(Fields.ERROR_CODE) != null) {
+                final String errorCode = String.valueOf(obj.get(Fields.ERROR_CODE));
+                return new StitchException.StitchServiceException(
+                        errorMsg, ErrorCode.fromCodeName(errorCode), response.getStatusCode());
+            }
+        } else {
+            errorMsg = data;
+        }
+
+        if (response.getStatusCode() >= 400 && response.getStatusCode() < 600) {
+            return new StitchException.StitchServiceException(
+                    errorMsg, ErrorCode.UNKNOWN, response.getStatusCode());
+        }
+
+        return new StitchException.StitchRequestException(
+                String.format("Unexpected response status %d: %s", response.getStatusCode(), errorMsg),
+                cause);
+    }
+
+    /**
+     * ErrorCode represents the set of errors that can come back from a Stitch request.
+     */
+    public enum ErrorCode {
+
+        /**
+         * Session is no longer valid and should be cleared.
+         */
+        INVALID_SESSION("InvalidSession"),
+
+        /**
+         * Generic unknown error.
+         */
+        UNKNOWN("Unknown");
+
+        private static final Map<String, ErrorCode> codeNameToError = new HashMap<>();
+
+        static {
+            codeNameToError.put(INVALID_SESSION._code, INVALID_SESSION);
+        }
+
+        private final String _code;
+
+        ErrorCode(final String codeName) {
+            _code = codeName;
+        }
+
+        public static ErrorCode fromCodeName(final String codeName) {
+            if (!codeNameToError.containsKey(codeName)) {
+                return UNKNOWN;
+            }
+            return codeNameToError.get(codeName);
+        }
+    }
+
+    private static class Fields {
+        private static final String ERROR = "error";
+        private static final String ERROR_CODE = "error_code";
+    }
+}
@@ -0,0 +1,177 @@
+package com.mongodb.stitch.android;
+
+import static com.mongodb.stitch.android.StitchError.ErrorCode;
+
+/**
+ * StitchExceptions represent a class of exceptions that happen while
+ * utilizing and communicate Stitch.
+ */
+public class StitchException extends RuntimeException {
+
+    public StitchException() {
+        super();
+    }
+
+    public StitchException(final Throwable t) {
+        super(t);
+    }
+
+    public StitchException(final String message, final Throwable t) {
+        super(message, t);
+    }
+
+    public StitchException(final String message) {
+        super(message);
+    }
+
+    /**
+     * A StitchRequestException is an exception that happens while making a request to Stitch
+     * servers.
+     */
+    public static class StitchRequestException extends StitchException {
+        public StitchRequestException(final Throwable t) {
+            super(t);
+        }
+
+        public StitchRequestException(final String message) {
+            super(message);
+        }
+
+        public StitchRequestException(final String message, final Throwable t) {
+            super(message, t);
+        }
+    }
+
+    /**
+     * A StitchCircuitOpenException is an exception that happens when a request is failed without
+     * being sent because recent requests to the same route have been failing.
+     */
+    public static class StitchCircuitOpenException extends StitchRequestException {
+
+        private final long _retryAfterMillis;
+
+        public StitchCircuitOpenException(final String message, final long retryAfterMillis) {
+            super(message);
+            _retryAfterMillis = retryAfterMillis;
+        }
+
+        /**
+         * @return How long until the route will be probed again.
+         */
+        public long getRetryAfterMillis() {
+            return _retryAfterMillis;
+        }
+    }
+
+    /**
+     * A StitchRateLimitedException is an exception that happens when a request is failed without
+     * being sent because a {@link RateLimiter} would have made it wait longer than its maximum
+     * wait.
+     */
+    public static class StitchRateLimitedException extends StitchRequestException {
+
+        private final long _maxWaitMillis;
+
+        public StitchRateLimitedException(final String message, final long maxWaitMillis) {
+            super(message);
+            _maxWaitMillis = maxWaitMillis;
+        }
+
+        /**
+         * @return The longest the request was allowed to wait for a permit.
+         */
+        public long getMaxWaitMillis() {
+            return _maxWaitMillis;
+        }
+    }
+
+    /**
+     * A StitchServiceException is an exception that happens when the Stitch server has deemed
+     * a request as failing for a reason. This exception captures that reason.
+     */
+    public static class StitchServiceException extends StitchRequestException {
+
+        private final ErrorCode _errorCode;
+        private final int _statusCode;
+
+        public StitchServiceException(final Throwable t) {
+            super(t);
+            _errorCode = ErrorCode.UNKNOWN;
+            _statusCode = 0;
+        }
+
+        public StitchServiceException(final String message) {
+            this(message, ErrorCode.UNKNOWN);
+        }
+
+        public StitchServiceException(final String message, final ErrorCode errorCode) {
+            this(message, errorCode, 0);
+        }
+
+        public StitchServiceException(final String message, final ErrorCode errorCode, final int statusCode) {
+            super(message);
+            _errorCode = errorCode;
+            _statusCode = statusCode;
+        }
+
+        /**
+         * @return The {@link ErrorCode} associated with the request.
+         */
+        public ErrorCode getErrorCode() {
+            return _errorCode;
+        }
+
+        /**
+         * @return The HTTP status code Stitch responded with, or 0 if it is not known.
+         */
+        public int getStatusCode() {
+            return _statusCode;
+        }
+    }
+
+    /**
+     * A StitchClientException is an exception that happens locally on the client and is typically
+     * a user error.
+     */
+    public static class StitchClientException extends StitchException {
+        public StitchClientException(final Throwable t) {
+            super(t);
+        }
+
+        public StitchClientException(final String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A StitchCancellationException is an exception that happens when a request is cancelled
+     * through its {@link CancellationToken} or runs past its deadline.
+     */
+    public static class StitchCancellationException extends StitchClientException {
+
+        private final boolean _deadlineExceeded;
+
+        public StitchCancellationException(final String message, final boolean deadlineExceeded) {
+            super(message);
+            _deadlineExceeded = deadlineExceeded;
+        }
+
+        /**
+         * @return Whether the request was cancelled because it ran past its deadline rather than
+         * through its {@link CancellationToken}.
+         */
+        public boolean isDeadlineExceeded() {
+            return _deadlineExceeded;
+        }
+    }
+
+    /**
+     * A StitchAuthException is an exception that happens when trying to authenticate with Stitch.
+     */
+    static class StitchAuthException extends StitchClientException {
+
+        StitchAuthException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StitchMetrics keeps in-memory counters and latency histograms of the requests made by a
+ * {@code StitchClient}, per route and per function call operation such as the {@code find},
+ * {@code count}, {@code insertOne}, {@code updateOne} and {@code deleteMany} operations of a
+ * {@code MongoClient}. It is fed by the client's
+ * {@link RequestEvent}s and can be read at any time as a {@link Snapshot}.
+ *
+ * <pre>{@code
+ * final StitchMetrics.Snapshot snapshot = stitchClient.getMetrics().snapshot();
+ * final long p99 = snapshot.getOperations().get("find").getLatency()
+ *         .getPercentile(99, TimeUnit.MILLISECONDS);
+ * Log.i(TAG, snapshot.toString());
+ * }</pre>
+ */
+public class StitchMetrics implements RequestEventListener {
+
+    private final ConcurrentMap<String, Recorder> _routes;
+    private final ConcurrentMap<String, Recorder> _operations;
+    private final AtomicLong _tokenRefreshes;
+    private final AtomicLong _cacheHits;
+    private final AtomicLong _cacheMisses;
+
+    StitchMetrics() {
+        _routes = new ConcurrentHashMap<>();
+        _operations = new ConcurrentHashMap<>();
+        _tokenRefreshes = new AtomicLong();
+        _cacheHits = new AtomicLong();
+        _cacheMisses = new AtomicLong();
+    }
+
+    @Override
+    public void onRequestEvent(final RequestEvent event) {
+        switch (event.getType()) {
+            case TOKEN_REFRESHED:
+                _tokenRefreshes.incrementAndGet();
+                break;
+            case CACHE_HIT:
+                _cacheHits.incrementAndGet();
+                break;
+            case CACHE_MISS:
+                _cacheMisses.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+
+        getRecorder(_routes, event.getRoute()).record(event);
+        if (event.getOperation() != null) {
+            getRecorder(_operations, event.getOperation()).record(event);
+        }
+    }
+
+    /**
+     * @return A copy of the metrics recorded so far.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(
+                snapshot(_routes),
+                snapshot(_operations),
+                _tokenRefreshes.get(),
+                _cacheHits.get(),
+                _cacheMisses.get());
+    }
+
+    /**
+     * Discards all metrics recorded so far.
+     */
+    public void reset() {
+        _routes.clear();
+        _operations.clear();
+        _tokenRefreshes.set(0);
+        _cacheHits.set(0);
+        _cacheMisses.set(0);
+    }
+
+    private static Recorder getRecorder(final ConcurrentMap<String, Recorder> recorders, final String key) {
+        Recorder recorder = recorders.get(key);
+        if (recorder == null) {
+            final Recorder created = new Recorder();
+            recorder = recorders.putIfAbsent(key, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        return recorder;
+    }
+
+    private static Map<String, Stats> snapshot(final Map<String, Recorder> recorders) {
+        final Map<String, Stats> stats = new TreeMap<>();
+        for (final Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Recorder accumulates the metrics of one route or operation.
+     */
+    private static class Recorder {
+        private final AtomicLong _requests = new AtomicLong();
+        private final AtomicLong _failures = new AtomicLong();
+        private final AtomicLong _retries = new AtomicLong();
+        private final AtomicLong _throttled = new AtomicLong();
+        private final AtomicLong _bytesSent = new AtomicLong();
+        private final AtomicLong _bytesReceived = new AtomicLong();
+        private final LatencyHistogram _latency = new LatencyHistogram();
+        private final LatencyHistogram _network = new LatencyHistogram();
+        private final LatencyHistogram _decode = new LatencyHistogram();
+        private final LatencyHistogram _throttle = new LatencyHistogram();
+
+        private void record(final RequestEvent event) {
+            switch (event.getType()) {
+                case ENQUEUED:
+                    _requests.incrementAndGet();
+                    break;
+                case DISPATCHED:
+                    _bytesSent.addAndGet(event.getBytesSent());
+                    break;
+                case RESPONSE_RECEIVED:
+                    _bytesReceived.addAndGet(event.getBytesReceived());
+                    _network.record(event.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    break;
+                case RETRY_SCHEDULED:
+                    _retries.incrementAndGet();
+                    break;
+                case THROTTLED:
+                    _throttled.incrementAndGet();
+                    _throttle.record(event.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    break;
+                case COMPLETED:
+                    if (event.getError() != null) {
+                        _failures.incrementAndGet();
+                    }
+                    _latency.record(event.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    break;
+                case DECODED:
+                    _decode.record(event.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private Stats snapshot() {
+            return new Stats(
+                    _requests.get(),
+                    _failures.get(),
+                    _retries.get(),
+                    _throttled.get(),
+                    _bytesSent.get(),
+                    _bytesReceived.get(),
+                    _latency.snapshot(),
+                    _network.snapshot(),
+                    _decode.snapshot(),
+                    _throttle.snapshot());
+        }
+    }
+
+    /**
+     * Stats are the metrics of one route or operation at the time of a {@link Snapshot}.
+     */
+    public static class Stats {
+        private final long _requests;
+        private final long _failures;
+        private final long _retries;
+        private final long _throttled;
+        private final long _bytesSent;
+        private final long _bytesReceived;
+        private final LatencyHistogram.Snapshot _latency;
+        private final LatencyHistogram.Snapshot _network;
+        private final LatencyHistogram.Snapshot _decode;
+        private final LatencyHistogram.Snapshot _throttle;
+
+        private Stats(
+                final long requests,
+                final long failures,
+                final long retries,
+                final long throttled,
+                final long bytesSent,
+                final long bytesReceived,
+                final LatencyHistogram.Snapshot latency,
+                final LatencyHistogram.Snapshot network,
+                final LatencyHistogram.Snapshot decode,
+                final LatencyHistogram.Snapshot throttle
+        ) {
+            _requests = requests;
+            _failures = failures;
+            _retries = retries;
+            _throttled = throttled;
+            _bytesSent = bytesSent;
+            _bytesReceived = bytesReceived;
+            _latency = latency;
+            _network = network;
+            _decode = decode;
+            _throttle = throttle;
+        }
+
+        /**
+         * @return The number of requests made.
+         */
+        public long getRequests() {
+            return _requests;
+        }
+
+        /**
+         * @return The number of requests that failed after all of their attempts.
+         */
+        public long getFailures() {
+            return _failures;
+        }
+
+        /**
+         * @return The number of retries scheduled.
+         */
+        public long getRetries() {
+            return _retries;
+        }
+
+        /**
+         * @return The number of attempts queued by a {@link RateLimiter}.
+         */
+        public long getThrottled() {
+            return _throttled;
+        }
+
+        /**
+         * @return The number of request body bytes sent, over all attempts.
+         */
+        public long getBytesSent() {
+            return _bytesSent;
+        }
+
+        /**
+         * @return The number of response body bytes received, over all attempts.
+         */
+        public long getBytesReceived() {
+            return _bytesReceived;
+        }
+
+        /**
+         * @return The end to end latencies of requests, from being made to completing.
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return _latency;
+        }
+
+        /**
+         * @return The latencies of attempts, from being handed to the transport to answering.
+         */
+        public LatencyHistogram.Snapshot getNetworkLatency() {
+            return _network;
+        }
+
+        /**
+         * @return The time spent decoding responses.
+         */
+        public LatencyHistogram.Snapshot getDecodeLatency() {
+            return _decode;
+        }
+
+        /**
+         * @return How long attempts queued by a {@link RateLimiter} waited for a permit.
+         */
+        public LatencyHistogram.Snapshot getThrottleLatency() {
+            return _throttle;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "requests=%d failures=%d retries=%d throttled=%d sent=%dB received=%dB%n" +
+                            "    latency:  %s%n    network:  %s%n    decode:   %s%n    throttle: %s",
+                    _requests, _failures, _retries, _throttled, _bytesSent, _bytesReceived,
+                    _latency, _network, _decode, _throttle);
+        }
+    }
+
+    /**
+     * Snapshot is an immutable copy of the metrics of a client.
+     */
+    public static class Snapshot {
+        private final Map<String, Stats> _routes;
+        private final Map<String, Stats> _operations;
+        private final long _tokenRefreshes;
+        private final long _cacheHits;
+        private final long _cacheMisses;
+
+        private Snapshot(
+                final Map<String, Stats> routes,
+                final Map<String, Stats> operations,
+                final long tokenRefreshes,
+                final long cacheHits,
+                final long cacheMisses
+        ) {
+            _routes = routes;
+            _operations = operations;
+            _tokenRefreshes = tokenRefreshes;
+            _cacheHits = cacheHits;
+            _cacheMisses = cacheMisses;
+        }
+
+        /**
+         * @return The metrics of each route, keyed by the route relative to the client API.
+         */
+        public Map<String, Stats> getRoutes() {
+            return _routes;
+        }
+
+        /**
+         * @return The metrics of each function call operation, keyed by function name.
+         */
+        public Map<String, Stats> getOperations() {
+            return _operations;
+        }
+
+        /**
+         * @param operation The name of the function, e.g. {@code find}.
+         * @return The metrics of the operation, or null if it has not been called.
+         */
+        @Nullable
+        public Stats getOperation(final String operation) {
+            return _operations.get(operation);
+        }
+
+        /**
+         * @return The number of times the access token was refreshed to replay a request.
+         */
+        public long getTokenRefreshes() {
+            return _tokenRefreshes;
+        }
+
+        /**
+         * @return The number of responses served from the response cache.
+         */
+        public long getCacheHits() {
+            return _cacheHits;
+        }
+
+        /**
+         * @return The number of cacheable responses that had to be fetched in full.
+         */
+        public long getCacheMisses() {
+            return _cacheMisses;
+        }
+
+        /**
+         * @return The fraction of cacheable responses served from the response cache, or 0 if
+         * there have been none.
+         */
+        public double getCacheHitRate() {
+            final long lookups = _cacheHits + _cacheMisses;
+            return lookups == 0 ? 0 : (double) _cacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder dump = new StringBuilder();
+            dump.append(String.format(
+                    "tokenRefreshes=%d cacheHits=%d cacheMisses=%d cacheHitRate=%.2f%n",
+                    _tokenRefreshes, _cacheHits, _cacheMisses, getCacheHitRate()));
+            for (final Map.Entry<String, Stats> route : _routes.entrySet()) {
+                dump.append(String.format("route %s: %s%n", route.getKey(), route.getValue()));
+            }
+            for (final Map.Entry<String, Stats> operation : _operations.entrySet()) {
+                dump.append(String.format("operation %s: %s%n", operation.getKey(), operation.getValue()));
+            }
+            return dump.toString();
+        }
+    }
+}
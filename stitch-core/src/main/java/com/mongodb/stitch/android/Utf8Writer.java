@@ -0,0 +1,109 @@
+package com.mongodb.stitch.android;
+
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Utf8Writer encodes characters as UTF-8 straight into a growable byte array. Unlike an
+ * OutputStreamWriter, it allocates nothing per write, which matters for the many small writes
+ * a JSON writer makes.
+ */
+class Utf8Writer extends Writer {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private byte[] _bytes;
+    private int _length;
+    private char _highSurrogate;
+
+    Utf8Writer() {
+        _bytes = new byte[DEFAULT_CAPACITY];
+    }
+
+    @Override
+    public void write(final int c) {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(final char[] chars, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            writeChar(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(final String str, final int offset, final int length) {
+        ensureCapacity(length);
+        for (int i = offset; i < offset + length; i++) {
+            writeChar(str.charAt(i));
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return A copy of the bytes written so far.
+     */
+    byte[] toByteArray() {
+        if (_highSurrogate != 0) {
+            _highSurrogate = 0;
+            writeCodePoint('?');
+        }
+        return Arrays.copyOf(_bytes, _length);
+    }
+
+    private void writeChar(final char c) {
+        if (_highSurrogate != 0) {
+            final char high = _highSurrogate;
+            _highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                writeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            writeCodePoint('?');
+        }
+
+        if (c < 0x80) {
+            ensureCapacity(1);
+            _bytes[_length++] = (byte) c;
+        } else if (Character.isHighSurrogate(c)) {
+            _highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            // Unpaired, as OutputStreamWriter would replace it
+            writeCodePoint('?');
+        } else {
+            writeCodePoint(c);
+        }
+    }
+
+    private void writeCodePoint(final int codePoint) {
+        ensureCapacity(4);
+        if (codePoint < 0x80) {
+            _bytes[_length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            _bytes[_length++] = (byte) (0xC0 | (codePoint >> 6));
+            _bytes[_length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            _bytes[_length++] = (byte) (0xE0 | (codePoint >> 12));
+            _bytes[_length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            _bytes[_length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            _bytes[_length++] = (byte) (0xF0 | (codePoint >> 18));
+            _bytes[_length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            _bytes[_length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            _bytes[_length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void ensureCapacity(final int extra) {
+        if (_length + extra > _bytes.length) {
+            _bytes = Arrays.copyOf(_bytes, Math.max(_bytes.length * 2, _length + extra));
+        }
+    }
+}
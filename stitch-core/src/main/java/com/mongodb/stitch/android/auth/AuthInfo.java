@@ -20,6 +20,9 @@ public class AuthInfo {
     private final String _userId;
     private final String _deviceId;
 
+    // Decoded lazily and at most once since this session's access token never changes
+    private DecodedJWT _decodedAccessToken;
+
     @JsonCreator
     private AuthInfo(
             @JsonProperty(Fields.ACCESS_TOKEN)
@@ -44,6 +47,17 @@ public class AuthInfo {
         return _accessToken;
     }
 
+    /**
+     * @return The current access token for this session, decoded.
+     */
+    @JsonIgnore
+    public DecodedJWT getDecodedAccessToken() {
+        if (_decodedAccessToken == null) {
+            _decodedAccessToken = new DecodedJWT(_accessToken);
+        }
+        return _decodedAccessToken;
+    }
+
     /**
      * @return The user this session was created for.
      */
@@ -0,0 +1,117 @@
+package com.mongodb.stitch.android.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.stitch.android.StitchException;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+@SuppressWarnings("WeakerAccess")
+public class DecodedJWT {
+
+    // ObjectMappers are thread safe once configured and expensive to create
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String raw;
+    private final Map<String, Object> payload;
+
+    public DecodedJWT(final String jwt) {
+        this.raw = jwt;
+        final String[] parts = splitToken(jwt);
+        final String payloadJson = new String(decodeBase64Url(parts[1]), UTF_8);
+        this.payload = convertFromJSON(payloadJson);
+    }
+
+    public String getRawToken() {
+        return raw;
+    }
+
+    public Long getExpiration() throws StitchException {
+        if (payload.get("exp") instanceof Number) {
+            return ((Number)payload.get("exp")).longValue();
+        }
+        throw new StitchException.StitchRequestException("Malformed JWT token. The expiration field must be a number.");
+    }
+
+    public String getName() throws StitchException {
+        if (payload.get("name") instanceof String) {
+            return (String)payload.get("name");
+        }
+        throw new StitchException.StitchRequestException("Malformed JWT token. The name field must be a string.");
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() / 1000L >= getExpiration() - 10L;
+    }
+
+    private String[] splitToken(final String jwt) {
+        final int firstDot = jwt.indexOf('.');
+        final int secondDot = firstDot == -1 ? -1 : jwt.indexOf('.', firstDot + 1);
+        if (secondDot == -1 || jwt.indexOf('.', secondDot + 1) != -1) {
+            throw new StitchException.StitchRequestException(String.format("Malformed JWT token. The string %s should have 3 parts.", jwt));
+        }
+        return new String[]{
+                jwt.substring(0, firstDot),
+                jwt.substring(firstDot + 1, secondDot),
+                jwt.substring(secondDot + 1)
+        };
+    }
+
+    /**
+     * Decodes the URL safe base64 alphabet of a JWT part, with or without padding. Kept here
+     * rather than using android.util.Base64 so that tokens can be decoded off device.
+     */
+    private static byte[] decodeBase64Url(final String encoded) {
+        final byte[] decoded = new byte[encoded.length() * 3 / 4];
+        int length = 0;
+        int buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            final char c = encoded.charAt(i);
+            final int value;
+            if (c >= 'A' && c <= 'Z') {
+                value = c - 'A';
+            } else if (c >= 'a' && c <= 'z') {
+                value = c - 'a' + 26;
+            } else if (c >= '0' && c <= '9') {
+                value = c - '0' + 52;
+            } else if (c == '-' || c == '+') {
+                value = 62;
+            } else if (c == '_' || c == '/') {
+                value = 63;
+            } else if (c == '=') {
+                break;
+            } else {
+                throw new StitchException.StitchRequestException(
+                        "Malformed JWT token. The payload is not valid base64.");
+            }
+
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                decoded[length++] = (byte) (buffer >> bits);
+            }
+        }
+        final byte[] trimmed = new byte[length];
+        System.arraycopy(decoded, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    private Map<String, Object> convertFromJSON(final String json) throws StitchException {
+        if (json == null) {
+            throw exceptionForInvalidJson(null);
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, Map.class);
+        } catch (IOException e) {
+            throw exceptionForInvalidJson(json);
+        }
+    }
+
+    private StitchException exceptionForInvalidJson(String json) {
+        return new StitchException.StitchRequestException(String.format("The string '%s' doesn't have a valid JSON format.", json));
+    }
+}
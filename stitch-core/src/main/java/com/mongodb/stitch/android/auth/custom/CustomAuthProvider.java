@@ -2,7 +2,6 @@ package com.mongodb.stitch.android.auth.custom;
 
 import android.support.annotation.NonNull;
 
-import com.mongodb.stitch.android.StitchClient;
 import com.mongodb.stitch.android.auth.AuthProvider;
 
 import org.bson.Document;
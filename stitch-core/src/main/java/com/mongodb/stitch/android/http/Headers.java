@@ -7,6 +7,12 @@ public class Headers {
     public static final String CONTENT_TYPE = "Content-Type";
     public static final String AUTHORIZATION = "Authorization";
     public static final String AUTHORIZATION_BEARER = "Bearer";
+    public static final String CACHE_CONTROL = "Cache-Control";
+    public static final String ETAG = "ETag";
+    public static final String LAST_MODIFIED = "Last-Modified";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
     /**
      * @param value The bearer value
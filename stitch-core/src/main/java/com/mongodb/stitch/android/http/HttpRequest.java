@@ -0,0 +1,143 @@
+package com.mongodb.stitch.android.http;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HttpRequest is a transport independent description of a single request to Stitch.
+ */
+public class HttpRequest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String DEFAULT_CONTENT_TYPE =
+            String.format("%s; charset=utf-8", ContentTypes.APPLICATION_JSON);
+
+    private final int _method;
+    private final String _url;
+    private final Map<String, String> _headers;
+    private final byte[] _body;
+    private final String _contentType;
+    private final Object _tag;
+    private final Priority _priority;
+
+    private HttpRequest(final Builder builder) {
+        _method = builder._method;
+        _url = builder._url;
+        _headers = Collections.unmodifiableMap(new HashMap<>(builder._headers));
+        _body = builder._body;
+        _contentType = builder._contentType;
+        _tag = builder._tag;
+        _priority = builder._priority;
+    }
+
+    /**
+     * @return The HTTP method of this request as one of the {@link Method} constants.
+     */
+    public int getMethod() {
+        return _method;
+    }
+
+    /**
+     * @return The fully qualified URL this request targets.
+     */
+    public String getUrl() {
+        return _url;
+    }
+
+    /**
+     * @return The headers to send with this request.
+     */
+    public Map<String, String> getHeaders() {
+        return _headers;
+    }
+
+    /**
+     * @return The encoded body of this request, or null if there is none.
+     */
+    public byte[] getBody() {
+        return _body;
+    }
+
+    /**
+     * @return The content type of the body of this request.
+     */
+    public String getContentType() {
+        return _contentType;
+    }
+
+    /**
+     * @return The tag used to group requests for cancellation.
+     */
+    public Object getTag() {
+        return _tag;
+    }
+
+    /**
+     * @return The priority of this request relative to other pending requests.
+     */
+    public Priority getPriority() {
+        return _priority;
+    }
+
+    /**
+     * Builder is a simple helper to build out an {@link HttpRequest}
+     */
+    public static class Builder {
+        private final int _method;
+        private final String _url;
+        private final Map<String, String> _headers = new HashMap<>();
+        private byte[] _body;
+        private String _contentType = DEFAULT_CONTENT_TYPE;
+        private Object _tag;
+        private Priority _priority = Priority.NORMAL;
+
+        /**
+         * @param method The HTTP method to use as one of the {@link Method} constants.
+         * @param url    The fully qualified URL to target.
+         */
+        public Builder(final int method, final String url) {
+            _method = method;
+            _url = url;
+        }
+
+        public Builder withHeader(final String name, final String value) {
+            _headers.put(name, value);
+            return this;
+        }
+
+        public Builder withHeaders(final Map<String, String> headers) {
+            _headers.putAll(headers);
+            return this;
+        }
+
+        public Builder withBody(final String body) {
+            _body = body == null ? null : body.getBytes(UTF_8);
+            return this;
+        }
+
+        public Builder withBody(final byte[] body) {
+            _body = body;
+            return this;
+        }
+
+        public Builder withContentType(final String contentType) {
+            _contentType = contentType;
+            return this;
+        }
+
+        public Builder withTag(final Object tag) {
+            _tag = tag;
+            return this;
+        }
+
+        public Builder withPriority(final Priority priority) {
+            _priority = priority;
+            return this;
+        }
+
+        public HttpRequest build() {
+            return new HttpRequest(this);
+        }
+    }
+}
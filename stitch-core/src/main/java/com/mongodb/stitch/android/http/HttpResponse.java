@@ -0,0 +1,112 @@
+package com.mongodb.stitch.android.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HttpResponse is a transport independent description of a response from Stitch.
+ */
+public class HttpResponse {
+    private static final String DEFAULT_CHARSET = "UTF-8";
+    private static final String CHARSET_PARAM = "charset=";
+
+    private final int _statusCode;
+    private final Map<String, String> _headers;
+    private final byte[] _body;
+
+    /**
+     * @param statusCode The HTTP status code of the response.
+     * @param headers    The headers of the response.
+     * @param body       The raw body of the response.
+     */
+    public HttpResponse(
+            final int statusCode,
+            final Map<String, String> headers,
+            final byte[] body
+    ) {
+        _statusCode = statusCode;
+        final Map<String, String> caseInsensitiveHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            caseInsensitiveHeaders.putAll(headers);
+        }
+        _headers = Collections.unmodifiableMap(caseInsensitiveHeaders);
+        _body = body == null ? new byte[0] : body;
+    }
+
+    /**
+     * @return The HTTP status code of the response.
+     */
+    public int getStatusCode() {
+        return _statusCode;
+    }
+
+    /**
+     * @return Whether or not the status code of the response indicates success. A 304 Not Modified
+     * is considered successful since it answers a conditional request.
+     */
+    public boolean isSuccessful() {
+        return (_statusCode >= 200 && _statusCode < 300) || _statusCode == 304;
+    }
+
+    /**
+     * @return The headers of the response. Header names are case insensitive.
+     */
+    public Map<String, String> getHeaders() {
+        return _headers;
+    }
+
+    /**
+     * @return The raw body of the response.
+     */
+    public byte[] getBody() {
+        return _body;
+    }
+
+    /**
+     * @return The charset declared by the response, defaulting to UTF-8.
+     */
+    public String getCharset() {
+        final String contentType = _headers.get(Headers.CONTENT_TYPE);
+        if (contentType == null) {
+            return DEFAULT_CHARSET;
+        }
+
+        for (final String param : contentType.split(";")) {
+            final String trimmed = param.trim();
+            if (trimmed.regionMatches(true, 0, CHARSET_PARAM, 0, CHARSET_PARAM.length())) {
+                return trimmed.substring(CHARSET_PARAM.length());
+            }
+        }
+        return DEFAULT_CHARSET;
+    }
+
+    /**
+     * @return A stream over the raw body of the response.
+     */
+    public InputStream getBodyAsStream() {
+        return new ByteArrayInputStream(_body);
+    }
+
+    /**
+     * @return A reader that decodes the body of the response with the charset it declares as it
+     * is read, without materializing the whole body as a String.
+     * @throws UnsupportedEncodingException If the declared charset is not supported.
+     */
+    public Reader getBodyAsReader() throws UnsupportedEncodingException {
+        return new InputStreamReader(getBodyAsStream(), getCharset());
+    }
+
+    /**
+     * @return The body of the response decoded with the charset it declares.
+     * @throws UnsupportedEncodingException If the declared charset is not supported.
+     */
+    public String getBodyAsString() throws UnsupportedEncodingException {
+        return new String(_body, getCharset());
+    }
+}
@@ -0,0 +1,37 @@
+package com.mongodb.stitch.android.http;
+
+/**
+ * HTTP methods supported by a {@link Transport}. The values line up with Volley's
+ * {@code Request.Method} so existing callers can pass either.
+ */
+public final class Method {
+    public static final int GET = 0;
+    public static final int POST = 1;
+    public static final int PUT = 2;
+    public static final int DELETE = 3;
+    public static final int HEAD = 4;
+
+    private Method() {
+    }
+
+    /**
+     * @param method The method to name.
+     * @return The request line name of the given method.
+     */
+    public static String getName(final int method) {
+        switch (method) {
+            case GET:
+                return "GET";
+            case POST:
+                return "POST";
+            case PUT:
+                return "PUT";
+            case DELETE:
+                return "DELETE";
+            case HEAD:
+                return "HEAD";
+            default:
+                throw new IllegalArgumentException(String.format("Unknown HTTP method %d", method));
+        }
+    }
+}
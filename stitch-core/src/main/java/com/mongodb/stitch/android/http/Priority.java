@@ -0,0 +1,31 @@
+package com.mongodb.stitch.android.http;
+
+/**
+ * Priority decides the order in which pending requests are sent when a {@link Transport} has
+ * more requests than it can execute at once. Requests of a higher priority are sent first and
+ * requests of equal priority are sent in the order they were made.
+ *
+ * {@code VolleyTransport} honors priorities. {@code OkHttpTransport} sends requests in the
+ * order they were made since its dispatcher has no notion of priority.
+ */
+public enum Priority {
+    /**
+     * Background work the user is not waiting on, e.g. push registration.
+     */
+    LOW,
+
+    /**
+     * The default priority.
+     */
+    NORMAL,
+
+    /**
+     * Work the user is waiting on, e.g. loading the data of a visible screen.
+     */
+    HIGH,
+
+    /**
+     * Work that other requests depend on, e.g. refreshing the access token.
+     */
+    IMMEDIATE
+}
@@ -0,0 +1,54 @@
+package com.mongodb.stitch.android.http;
+
+import com.mongodb.stitch.android.StitchException;
+
+/**
+ * A Transport is responsible for carrying {@link HttpRequest}s to Stitch and handing back their
+ * {@link HttpResponse}s. All network traffic from a {@code StitchClient}
+ * and its push clients goes through a single transport.
+ */
+public interface Transport {
+
+    /**
+     * Executes a request asynchronously. Exactly one of the listener's methods will be called
+     * unless the request is cancelled, in which case neither will be.
+     *
+     * @param request  The request to execute.
+     * @param listener The listener to notify upon completion of the request.
+     */
+    void execute(HttpRequest request, Listener listener);
+
+    /**
+     * Cancels all pending and in-flight requests carrying the given tag.
+     *
+     * @param tag The tag of the requests to cancel.
+     */
+    void cancelAll(Object tag);
+
+    /**
+     * Cancels a single pending or in-flight request.
+     *
+     * @param request The request to cancel, as passed to {@link #execute(HttpRequest, Listener)}.
+     */
+    void cancel(HttpRequest request);
+
+    /**
+     * Listener receives the outcome of a request executed by a {@link Transport}.
+     */
+    interface Listener {
+
+        /**
+         * Called when Stitch responded with a successful status code.
+         *
+         * @param response The response from Stitch.
+         */
+        void onResponse(HttpResponse response);
+
+        /**
+         * Called when the request failed either in the network or with an error status code.
+         *
+         * @param error An exception describing the failure.
+         */
+        void onError(StitchException.StitchRequestException error);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mongodb.stitch.android;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final Exception UNAVAILABLE =
+            new StitchException.StitchServiceException("unavailable", StitchError.ErrorCode.UNKNOWN, 503);
+    private static final Exception NOT_FOUND =
+            new StitchException.StitchServiceException("not found", StitchError.ErrorCode.UNKNOWN, 404);
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker();
+
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD - 1; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onComplete(UNAVAILABLE);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.isRejecting());
+
+        breaker.onComplete(UNAVAILABLE);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isRejecting());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.getRetryAfterMillis() > 0);
+    }
+
+    @Test
+    public void testNonTransientErrorsResetTheCount() {
+        final CircuitBreaker breaker = new CircuitBreaker(2, 1000);
+
+        breaker.onComplete(UNAVAILABLE);
+        breaker.onComplete(NOT_FOUND);
+        breaker.onComplete(UNAVAILABLE);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenLetsOneProbeThrough() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(1, 50);
+        breaker.onComplete(UNAVAILABLE);
+        Thread.sleep(100);
+
+        // Checking whether the circuit rejects must not use up the probe
+        assertFalse(breaker.isRejecting());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.isRejecting());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testSuccessfulProbeClosesTheCircuit() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(1, 50);
+        breaker.onComplete(UNAVAILABLE);
+        Thread.sleep(100);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(null);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.isRejecting());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testFailedProbeReopensTheCircuit() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(3, 50);
+        for (int i = 0; i < 3; i++) {
+            breaker.onComplete(UNAVAILABLE);
+        }
+        Thread.sleep(100);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(UNAVAILABLE);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isRejecting());
+    }
+}
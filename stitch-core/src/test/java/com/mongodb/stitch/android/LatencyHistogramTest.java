@@ -0,0 +1,70 @@
+package com.mongodb.stitch.android;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptySnapshot() {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean(TimeUnit.MILLISECONDS));
+        assertEquals(0, snapshot.getMax(TimeUnit.MILLISECONDS));
+        assertEquals(0, snapshot.getPercentile(99, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPercentilesAreWithinBucketError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getMean(TimeUnit.MICROSECONDS));
+        assertEquals(1000, snapshot.getMax(TimeUnit.MILLISECONDS));
+        assertWithin(500, snapshot.getPercentile(50, TimeUnit.MICROSECONDS) / 1e3);
+        assertWithin(990, snapshot.getPercentile(99, TimeUnit.MICROSECONDS) / 1e3);
+        assertWithin(1000, snapshot.getPercentile(100, TimeUnit.MICROSECONDS) / 1e3);
+    }
+
+    @Test
+    public void testSmallDurationsAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3, TimeUnit.MICROSECONDS);
+        histogram.record(7, TimeUnit.MICROSECONDS);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(3, snapshot.getPercentile(50, TimeUnit.MICROSECONDS));
+        assertEquals(7, snapshot.getPercentile(100, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void testOutOfRangeDurationsAreClamped() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5, TimeUnit.MILLISECONDS);
+        histogram.record(30, TimeUnit.DAYS);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentile(50, TimeUnit.MICROSECONDS));
+        assertTrue(snapshot.getMax(TimeUnit.HOURS) >= 19 && snapshot.getMax(TimeUnit.HOURS) < 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidPercentile() {
+        new LatencyHistogram().snapshot().getPercentile(101, TimeUnit.MILLISECONDS);
+    }
+
+    private static void assertWithin(final double expected, final double actual) {
+        assertTrue(String.format("%f is not within 3%% of %f", actual, expected),
+                Math.abs(actual - expected) <= expected * 0.03);
+    }
+}
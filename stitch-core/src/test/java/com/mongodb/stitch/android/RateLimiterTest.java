@@ -0,0 +1,92 @@
+package com.mongodb.stitch.android;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstIsHandedOutImmediately() {
+        final RateLimiter limiter = new RateLimiter.Builder()
+                .withPermitsPerSecond(1)
+                .withBurst(3)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.reserve());
+        }
+    }
+
+    @Test
+    public void testQueuedPermitsAreSpacedAtTheSteadyRate() {
+        final RateLimiter limiter = new RateLimiter.Builder()
+                .withPermitsPerSecond(10)
+                .withBurst(1)
+                .build();
+
+        assertEquals(0, limiter.reserve());
+        final long first = limiter.reserve();
+        final long second = limiter.reserve();
+
+        // Each permit in debt waits another 100ms, less the little that refilled meanwhile
+        assertTrue(first > 0 && first <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(second > TimeUnit.MILLISECONDS.toNanos(100) && second <= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testWaitBeyondMaximumIsRefused() {
+        final RateLimiter limiter = new RateLimiter.Builder()
+                .withPermitsPerSecond(1)
+                .withBurst(1)
+                .withMaxWait(1500, TimeUnit.MILLISECONDS)
+                .build();
+
+        assertEquals(0, limiter.reserve());
+        assertTrue(limiter.reserve() > 0);
+        assertEquals(-1, limiter.reserve());
+
+        // A refused reservation takes nothing, so the debt stays bounded
+        assertEquals(-1, limiter.reserve());
+    }
+
+    @Test
+    public void testRefundReturnsPermit() {
+        final RateLimiter limiter = new RateLimiter.Builder()
+                .withPermitsPerSecond(1)
+                .withBurst(1)
+                .build();
+
+        assertEquals(0, limiter.reserve());
+        assertTrue(limiter.reserve() > 0);
+        limiter.refund();
+        limiter.refund();
+
+        // Refunds are capped at the burst
+        assertEquals(0, limiter.reserve());
+        assertTrue(limiter.reserve() > 0);
+    }
+
+    @Test
+    public void testNewBuilderKeepsConfiguration() {
+        final RateLimiter limiter = new RateLimiter.Builder()
+                .withPermitsPerSecond(2.5)
+                .withBurst(7)
+                .withMaxWait(3, TimeUnit.SECONDS)
+                .build()
+                .newBuilder()
+                .build();
+
+        assertEquals(2.5, limiter.getPermitsPerSecond(), 0);
+        assertEquals(7, limiter.getBurst());
+        assertEquals(3000, limiter.getMaxWaitMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveRate() {
+        new RateLimiter.Builder().withPermitsPerSecond(0);
+    }
+}
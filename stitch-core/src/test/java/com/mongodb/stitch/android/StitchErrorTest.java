@@ -0,0 +1,98 @@
+package com.mongodb.stitch.android;
+
+import com.mongodb.stitch.android.http.HttpResponse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.mongodb.stitch.android.http.ContentTypes.APPLICATION_JSON;
+import static com.mongodb.stitch.android.http.Headers.CONTENT_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StitchErrorTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Map<String, String> JSON_HEADERS = Collections.singletonMap(CONTENT_TYPE, APPLICATION_JSON);
+
+    @Test
+    public void testJsonErrorWithCode() {
+        final StitchException.StitchRequestException error = StitchError.parseRequestError(
+                new HttpResponse(401, JSON_HEADERS, bytes("{\"error\": \"session expired\", \"error_code\": \"InvalidSession\"}")));
+
+        assertTrue(error instanceof StitchException.StitchServiceException);
+        final StitchException.StitchServiceException serviceError = (StitchException.StitchServiceException) error;
+        assertEquals("session expired", serviceError.getMessage());
+        assertEquals(StitchError.ErrorCode.INVALID_SESSION, serviceError.getErrorCode());
+        assertEquals(401, serviceError.getStatusCode());
+    }
+
+    @Test
+    public void testJsonErrorWithUnknownCode() {
+        final StitchException.StitchServiceException error = (StitchException.StitchServiceException) StitchError.parseRequestError(
+                new HttpResponse(400, JSON_HEADERS, bytes("{\"error\": \"bad\", \"error_code\": \"SomethingNew\"}")));
+
+        assertEquals(StitchError.ErrorCode.UNKNOWN, error.getErrorCode());
+    }
+
+    @Test
+    public void testJsonErrorWithoutCode() {
+        final StitchException.StitchRequestException error = StitchError.parseRequestError(
+                new HttpResponse(500, JSON_HEADERS, bytes("{\"error\": \"boom\"}")));
+
+        assertTrue(error instanceof StitchException.StitchServiceException);
+        final StitchException.StitchServiceException serviceError = (StitchException.StitchServiceException) error;
+        assertEquals("boom", serviceError.getMessage());
+        assertEquals(StitchError.ErrorCode.UNKNOWN, serviceError.getErrorCode());
+        assertEquals(500, serviceError.getStatusCode());
+    }
+
+    @Test(expected = StitchException.StitchRequestException.class)
+    public void testJsonErrorMissingErrorField() {
+        StitchError.parseRequestError(new HttpResponse(400, JSON_HEADERS, bytes("{\"message\": \"boom\"}")));
+    }
+
+    @Test(expected = StitchException.StitchRequestException.class)
+    public void testJsonErrorNotJson() {
+        StitchError.parseRequestError(new HttpResponse(400, JSON_HEADERS, bytes("<html></html>")));
+    }
+
+    @Test
+    public void testPlainTextError() {
+        final StitchException.StitchRequestException error = StitchError.parseRequestError(
+                new HttpResponse(503, null, bytes("Service Unavailable")));
+
+        assertTrue(error instanceof StitchException.StitchServiceException);
+        assertEquals("Service Unavailable", error.getMessage());
+        assertEquals(503, ((StitchException.StitchServiceException) error).getStatusCode());
+    }
+
+    @Test
+    public void testUnexpectedStatusKeepsCause() {
+        final IOException cause = new IOException("redirected");
+        final StitchException.StitchRequestException error = StitchError.parseRequestError(
+                new HttpResponse(302, null, bytes("Found")), cause);
+
+        assertFalse(error instanceof StitchException.StitchServiceException);
+        assertSame(cause, error.getCause());
+        assertTrue(error.getMessage().contains("302"));
+    }
+
+    @Test
+    public void testUnexpectedStatusWithoutCause() {
+        final StitchException.StitchRequestException error = StitchError.parseRequestError(
+                new HttpResponse(302, null, bytes("Found")));
+
+        assertNull(error.getCause());
+    }
+
+    private static byte[] bytes(final String str) {
+        return str.getBytes(UTF_8);
+    }
+}
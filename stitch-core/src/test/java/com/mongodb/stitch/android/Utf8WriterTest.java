@@ -0,0 +1,76 @@
+package com.mongodb.stitch.android;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class Utf8WriterTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testMatchesStringEncoding() {
+        for (final String str : Arrays.asList(
+                "",
+                "plain ascii",
+                "café über",
+                "日本語",
+                "emoji 😀 and 𝄞",
+                "\u007f\u0080߿ࠀ￿")) {
+            assertArrayEquals(str, str.getBytes(UTF_8), encode(str));
+        }
+    }
+
+    @Test
+    public void testLoneSurrogatesAreReplaced() {
+        assertArrayEquals("a?b".getBytes(UTF_8), encode("a\ud83db"));
+        assertArrayEquals("a?b".getBytes(UTF_8), encode("a\ude00b"));
+        assertArrayEquals("a?".getBytes(UTF_8), encode("a\ud83d"));
+        assertArrayEquals("??".getBytes(UTF_8), encode("\ud83d\ud83d"));
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() {
+        final Utf8Writer writer = new Utf8Writer();
+        writer.write('\ud83d');
+        writer.write("\ude00", 0, 1);
+
+        assertArrayEquals("😀".getBytes(UTF_8), writer.toByteArray());
+    }
+
+    @Test
+    public void testGrowsPastDefaultCapacity() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("é😀");
+        }
+        final String str = builder.toString();
+
+        assertArrayEquals(str.getBytes(UTF_8), encode(str));
+    }
+
+    @Test
+    public void testJsonBytesMatchToJson() {
+        final Document document = new Document("name", "café 😀")
+                .append("_id", new ObjectId())
+                .append("count", 42L)
+                .append("at", new Date(1500000000000L))
+                .append("nested", new Document("list", Arrays.asList(1, 2.5, "three")));
+
+        assertArrayEquals(document.toJson().getBytes(UTF_8), BsonUtils.toJsonBytes(document));
+        assertArrayEquals(
+                ("[" + document.toJson() + "," + document.toJson() + "]").getBytes(UTF_8),
+                BsonUtils.toJsonBytes(Arrays.asList(document, document)));
+    }
+
+    private static byte[] encode(final String str) {
+        final Utf8Writer writer = new Utf8Writer();
+        writer.write(str, 0, str.length());
+        return writer.toByteArray();
+    }
+}
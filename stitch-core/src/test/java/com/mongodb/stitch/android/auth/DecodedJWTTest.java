@@ -0,0 +1,80 @@
+package com.mongodb.stitch.android.auth;
+
+import com.mongodb.stitch.android.StitchException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DecodedJWTTest {
+    private static final String HEADER = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9";
+
+    // {"exp":1700000000,"name":"a~?>>ÿ"}, whose encoding uses both URL safe characters
+    private static final String PAYLOAD = "eyJleHAiOjE3MDAwMDAwMDAsIm5hbWUiOiJhfj8-PsO_In0";
+
+    @Test
+    public void testDecodesUnpaddedUrlSafePayload() {
+        final DecodedJWT jwt = new DecodedJWT(HEADER + "." + PAYLOAD + ".signature");
+
+        assertEquals(Long.valueOf(1700000000L), jwt.getExpiration());
+        assertEquals("a~?>>ÿ", jwt.getName());
+        assertTrue(jwt.isExpired());
+    }
+
+    @Test
+    public void testDecodesPaddedPayload() {
+        final DecodedJWT jwt = new DecodedJWT(HEADER + "." + PAYLOAD + "=.signature");
+
+        assertEquals("a~?>>ÿ", jwt.getName());
+    }
+
+    @Test
+    public void testDecodesStandardAlphabet() {
+        final String standard = PAYLOAD.replace('-', '+').replace('_', '/');
+        final DecodedJWT jwt = new DecodedJWT(HEADER + "." + standard + ".signature");
+
+        assertEquals("a~?>>ÿ", jwt.getName());
+    }
+
+    @Test
+    public void testFutureExpiration() {
+        // {"exp":4102444800} is the start of 2100
+        final DecodedJWT jwt = new DecodedJWT(HEADER + ".eyJleHAiOjQxMDI0NDQ4MDB9.signature");
+
+        assertFalse(jwt.isExpired());
+    }
+
+    @Test
+    public void testRejectsWrongNumberOfParts() {
+        assertMalformed(HEADER + "." + PAYLOAD);
+        assertMalformed(HEADER + "." + PAYLOAD + ".signature.extra");
+    }
+
+    @Test
+    public void testRejectsInvalidBase64() {
+        assertMalformed(HEADER + ".eyJleHAi*jE3MDAwMDAwMDB9.signature");
+    }
+
+    @Test
+    public void testRejectsInvalidJson() {
+        // "not json"
+        assertMalformed(HEADER + ".bm90IGpzb24.signature");
+    }
+
+    @Test(expected = StitchException.StitchRequestException.class)
+    public void testRejectsMissingExpiration() {
+        // {"name":"a"}
+        new DecodedJWT(HEADER + ".eyJuYW1lIjoiYSJ9.signature").getExpiration();
+    }
+
+    private static void assertMalformed(final String token) {
+        try {
+            new DecodedJWT(token);
+            fail("Expected " + token + " to be rejected");
+        } catch (final StitchException.StitchRequestException expected) {
+        }
+    }
+}
@@ -28,3 +28,7 @@
     java.lang.Object writeReplace();
     java.lang.Object readResolve();
 }
+
+# OkHttp is an optional dependency only needed for OkHttpTransport
+-dontwarn okhttp3.**
+-dontwarn okio.**
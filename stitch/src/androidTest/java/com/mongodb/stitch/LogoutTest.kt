@@ -0,0 +1,63 @@
+package com.mongodb.stitch
+
+import android.content.Context
+import android.support.test.InstrumentationRegistry
+import android.support.test.runner.AndroidJUnit4
+import com.mongodb.stitch.android.RetryPolicy
+import com.mongodb.stitch.android.StitchClient
+import com.mongodb.stitch.android.StitchException
+import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProvider
+import com.mongodb.stitch.load.FakeStitchServer
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Test that logging out fails the calls of the logged out user rather than leaving their
+ * tasks pending forever.
+ */
+@RunWith(AndroidJUnit4::class)
+class LogoutTest {
+    /** Base context from test runner */
+    private val instrumentationCtx: Context by lazy { InstrumentationRegistry.getContext() }
+
+    private lateinit var server: FakeStitchServer
+    private lateinit var stitchClient: StitchClient
+
+    @Before
+    fun setup() {
+        server = FakeStitchServer().start()
+        stitchClient = server.newClient(instrumentationCtx)
+        clearStitchClient(instrumentationCtx, stitchClient)
+        stitchClient.retryPolicy = RetryPolicy.NONE
+        await(stitchClient.logInWithProvider(AnonymousAuthProvider()))
+    }
+
+    @After
+    fun teardown() {
+        server.close()
+    }
+
+    @Test
+    fun testLogoutFailsCallsInFlight() {
+        server.functionLatencyMillis = 2_000
+        val call = stitchClient.executeFunction("write", 0)
+        while (server.requestCount("app/{app}/functions/call") == 0L) {
+            Thread.sleep(10)
+        }
+
+        await(stitchClient.logout())
+
+        // Completes well before the server would have answered it
+        val done = CountDownLatch(1)
+        call.addOnCompleteListener { done.countDown() }
+        assertTrue(done.await(1, TimeUnit.SECONDS))
+        assertFalse(call.isSuccessful)
+        assertTrue(call.exception is StitchException.StitchCancellationException)
+    }
+}
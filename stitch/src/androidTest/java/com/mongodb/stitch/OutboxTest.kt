@@ -0,0 +1,125 @@
+package com.mongodb.stitch
+
+import android.content.Context
+import android.support.test.InstrumentationRegistry
+import android.support.test.runner.AndroidJUnit4
+import com.mongodb.stitch.android.Outbox
+import com.mongodb.stitch.android.RequestOptions
+import com.mongodb.stitch.android.RetryPolicy
+import com.mongodb.stitch.android.StitchClient
+import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProvider
+import com.mongodb.stitch.load.FakeStitchServer
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Test that replayable writes queued in the [Outbox] reach a [FakeStitchServer] in the order
+ * they were made, and that a stalled outbox resumes on its own.
+ */
+@RunWith(AndroidJUnit4::class)
+class OutboxTest {
+    companion object {
+        private const val WAIT_TIMEOUT_MILLIS = 30_000L
+    }
+
+    /** Base context from test runner */
+    private val instrumentationCtx: Context by lazy { InstrumentationRegistry.getContext() }
+
+    private lateinit var server: FakeStitchServer
+    private lateinit var stitchClient: StitchClient
+
+    private val replayable = RequestOptions.Builder().withReplayable(true).build()
+
+    @Before
+    fun setup() {
+        server = FakeStitchServer().start()
+        stitchClient = server.newClient(instrumentationCtx)
+        clearStitchClient(instrumentationCtx, stitchClient)
+        stitchClient.retryPolicy = RetryPolicy.NONE
+        await(stitchClient.logInWithProvider(AnonymousAuthProvider()))
+    }
+
+    @After
+    fun teardown() {
+        server.close()
+    }
+
+    @Test
+    fun testQueuedWritesReplayInOrder() {
+        server.throttled = true
+
+        // Turned away with a 429, which shows it was not applied, so it is queued
+        val first = stitchClient.executeFunction("write", replayable, 0)
+        waitUntil { stitchClient.outbox.size() == 1 }
+
+        // Queued behind the first write without being sent, even though the device is online
+        val rest = (1 until 5).map { stitchClient.executeFunction("write", replayable, it) }
+        assertEquals(5, stitchClient.outbox.size())
+        assertTrue(server.servedCalls.isEmpty())
+
+        // The outbox keeps retrying the first write with backoff until it goes through
+        waitUntil { server.throttledCalls.get() >= 2 }
+        server.throttled = false
+
+        (listOf(first) + rest).forEach { await(it) }
+        assertEquals(
+                listOf(0, 1, 2, 3, 4),
+                server.servedCalls.map { (it["arguments"] as List<*>)[0] as Int })
+        assertEquals(0, stitchClient.outbox.size())
+    }
+
+    @Test
+    fun testAmbiguousFailuresAreNotQueued() {
+        server.errorRate = 1.0
+
+        // A 503 may have been applied, so the write fails rather than being replayed later
+        val write = stitchClient.executeFunction("write", replayable, 0)
+        latch { write.addOnCompleteListener { countDown() } }
+        assertTrue(!write.isSuccessful)
+        assertEquals(0, stitchClient.outbox.size())
+    }
+
+    @Test
+    fun testReplaysResumeAfterLogoutDuringReplay() {
+        server.throttled = true
+        val discarded = stitchClient.executeFunction("write", replayable, 0)
+        waitUntil { stitchClient.outbox.size() == 1 }
+
+        // Hold the next replay at the server and log out while it is in flight
+        server.functionLatencyMillis = 5_000
+        server.throttled = false
+        waitUntil { server.requestCount("app/{app}/functions/call") >= 2 }
+        await(stitchClient.logout())
+        latch { discarded.addOnCompleteListener { countDown() } }
+        assertTrue(!discarded.isSuccessful)
+        assertEquals(0, stitchClient.outbox.size())
+
+        // Writes queued by the next user are still replayed
+        server.functionLatencyMillis = 0
+        await(stitchClient.logInWithProvider(AnonymousAuthProvider()))
+        server.throttled = true
+        val queued = stitchClient.executeFunction("write", replayable, 1)
+        waitUntil { stitchClient.outbox.size() == 1 }
+        server.throttled = false
+
+        val done = CountDownLatch(1)
+        queued.addOnCompleteListener { done.countDown() }
+        assertTrue(done.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "Queued write was never replayed")
+        assertTrue(queued.isSuccessful)
+        assertEquals(0, stitchClient.outbox.size())
+    }
+
+    private fun waitUntil(condition: () -> Boolean) {
+        val deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS
+        while (!condition()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the outbox")
+            Thread.sleep(50)
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mongodb.stitch
+
+import android.support.test.runner.AndroidJUnit4
+import com.mongodb.stitch.android.RetryPolicy
+import com.mongodb.stitch.android.StitchError
+import com.mongodb.stitch.android.StitchException
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.Random
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Test which failures a [RetryPolicy] retries and how long it backs off.
+ */
+@RunWith(AndroidJUnit4::class)
+class RetryPolicyTest {
+    private val policy = RetryPolicy.Builder()
+            .withMaxRetries(3)
+            .withInitialBackoffMillis(100)
+            .withMaxBackoffMillis(1000)
+            .build()
+
+    @Test
+    fun testRetriesTransientFailures() {
+        assertTrue(policy.shouldRetry(0, StitchException.StitchRequestException("timeout")))
+        assertTrue(policy.shouldRetry(0, StitchException.StitchServiceException(
+                "unavailable", StitchError.ErrorCode.UNKNOWN, 503)))
+        assertTrue(policy.shouldRetry(0, StitchException.StitchServiceException(
+                "slow down", StitchError.ErrorCode.UNKNOWN, 429)))
+    }
+
+    @Test
+    fun testDoesNotRetryPermanentFailures() {
+        assertFalse(policy.shouldRetry(0, StitchException.StitchServiceException(
+                "bad request", StitchError.ErrorCode.UNKNOWN, 400)))
+        assertFalse(policy.shouldRetry(0, StitchException.StitchClientException("Must first authenticate")))
+        assertFalse(policy.shouldRetry(3, StitchException.StitchRequestException("timeout")))
+        assertFalse(RetryPolicy.NONE.shouldRetry(0, StitchException.StitchRequestException("timeout")))
+    }
+
+    @Test
+    fun testBackoffIsBoundedAndJittered() {
+        val random = Random(42)
+        for (retries in 0..10) {
+            val ceiling = minOf(100L shl retries, 1000L)
+            val backoff = policy.getBackoffMillis(retries, random)
+            assertTrue(backoff >= ceiling / 2 && backoff <= ceiling)
+        }
+    }
+}
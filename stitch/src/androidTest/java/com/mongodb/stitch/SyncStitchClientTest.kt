@@ -0,0 +1,85 @@
+package com.mongodb.stitch
+
+import android.content.Context
+import android.support.test.InstrumentationRegistry
+import android.support.test.runner.AndroidJUnit4
+import com.mongodb.stitch.android.RetryPolicy
+import com.mongodb.stitch.android.StitchException
+import com.mongodb.stitch.android.SyncStitchClient
+import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProvider
+import com.mongodb.stitch.android.services.mongodb.MongoClient
+import com.mongodb.stitch.android.services.mongodb.SyncCollection
+import com.mongodb.stitch.load.FakeStitchServer
+import org.bson.Document
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+/**
+ * Test the blocking [SyncStitchClient] and [SyncCollection] facades against a [FakeStitchServer].
+ */
+@RunWith(AndroidJUnit4::class)
+class SyncStitchClientTest {
+    /** Base context from test runner */
+    private val instrumentationCtx: Context by lazy { InstrumentationRegistry.getContext() }
+
+    private lateinit var server: FakeStitchServer
+    private lateinit var client: SyncStitchClient
+    private lateinit var mongoClient: MongoClient
+
+    @Before
+    fun setup() {
+        server = FakeStitchServer().start()
+        val stitchClient = server.newClient(instrumentationCtx)
+        clearStitchClient(instrumentationCtx, stitchClient)
+        client = SyncStitchClient(stitchClient)
+        mongoClient = MongoClient(stitchClient, "mongodb-atlas")
+    }
+
+    @After
+    fun teardown() {
+        server.close()
+    }
+
+    @Test
+    fun testBlockingCalls() {
+        assertTrue(client.logInWithProvider(AnonymousAuthProvider()).isNotEmpty())
+
+        val items = SyncCollection(mongoClient.getDatabase("todo").getCollection("items"))
+        assertEquals(server.findResultSize, items.find(Document(), 50).size)
+        assertEquals(server.findResultSize.toLong(), items.count(Document()))
+        assertEquals(1, items.deleteOne(Document("text", "item 0")).getInteger("deletedCount"))
+
+        client.logout()
+    }
+
+    @Test
+    fun testFailuresAreThrown() {
+        client.logInWithProvider(AnonymousAuthProvider())
+        mongoClient.retryPolicy = RetryPolicy.NONE
+        server.errorRate = 1.0
+
+        val items = SyncCollection(mongoClient.getDatabase("todo").getCollection("items"))
+        val error = assertFailsWith<StitchException.StitchServiceException> {
+            items.find(Document(), 50)
+        }
+        assertEquals(503, error.statusCode)
+    }
+
+    @Test
+    fun testWaitIsBounded() {
+        client.logInWithProvider(AnonymousAuthProvider())
+        server.functionLatencyMillis = 5_000
+
+        val started = System.currentTimeMillis()
+        val error = assertFailsWith<StitchException.StitchCancellationException> {
+            SyncStitchClient.await(client.stitchClient.executeFunction("slow"), 500)
+        }
+        assertTrue(error.isDeadlineExceeded)
+        assertTrue(System.currentTimeMillis() - started < 5_000)
+    }
+}
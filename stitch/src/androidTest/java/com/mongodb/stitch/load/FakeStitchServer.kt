@@ -0,0 +1,262 @@
+package com.mongodb.stitch.load
+
+import android.content.Context
+import com.mongodb.stitch.android.StitchClient
+import com.mongodb.stitch.mockResponseBuilder
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SignatureAlgorithm
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.bson.Document
+import org.bson.json.JsonMode
+import org.bson.json.JsonWriterSettings
+import org.bson.types.ObjectId
+import java.io.Closeable
+import java.util.Date
+import java.util.Random
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * A local stand-in for the Stitch client API, serving the auth, session, function call and
+ * push registration routes a [StitchClient] uses. Latency, injected errors and the lifetime
+ * of access tokens are configurable and may be changed while the server is running.
+ *
+ * Access tokens claim to be valid for half an hour so that clients do not refresh them
+ * proactively, but the server rejects them after [accessTokenTtlMillis], which exercises the
+ * invalid session refresh and replay path.
+ */
+class FakeStitchServer(val appId: String = "fake-app-${UUID.randomUUID()}") : Closeable {
+    companion object {
+        private const val API_PREFIX = "/api/client/v2.0/"
+        private const val CLAIMED_TOKEN_TTL_MILLIS = 30 * 60 * 1000L
+        private val SIGNING_KEY = "fake-stitch-server-signing-key".toByteArray()
+        private val EXTENDED_JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build()
+    }
+
+    /** Fixed delay added to every response */
+    @Volatile var latencyMillis: Long = 0
+    /** Random delay of up to this much added on top of [latencyMillis] */
+    @Volatile var latencyJitterMillis: Long = 0
+    /** Delay added to function calls only, on top of [latencyMillis] */
+    @Volatile var functionLatencyMillis: Long = 0
+    /** Fraction of function calls failed with a 503 Service Unavailable */
+    @Volatile var errorRate: Double = 0.0
+    /** Whether or not function calls are turned away with a 429 Too Many Requests */
+    @Volatile var throttled: Boolean = false
+    /** How long an access token is accepted after being issued */
+    @Volatile var accessTokenTtlMillis: Long = CLAIMED_TOKEN_TTL_MILLIS
+    /** Number of documents returned by a find */
+    @Volatile var findResultSize: Int = 10
+    /** Index of the first document a find returns with a string rather than an ObjectId _id */
+    @Volatile var findStringIdsFrom: Int = Int.MAX_VALUE
+    /**
+     * Whether or not to serve the function batch route, which the real Stitch client API lacks.
+     * Clients only use it after [StitchClient.setFunctionBatchRouteEnabled].
+     */
+    @Volatile var supportsFunctionBatch: Boolean = false
+
+    /** Number of requests served per route, with the app ID replaced by {app} */
+    val requestCounts = ConcurrentHashMap<String, AtomicLong>()
+    /** Number of function calls failed on purpose */
+    val injectedErrors = AtomicLong()
+    /** Number of function calls turned away while [throttled] */
+    val throttledCalls = AtomicLong()
+    /** Function calls that were served, in the order they arrived */
+    val servedCalls = ConcurrentLinkedQueue<Document>()
+    /** Number of requests rejected because their access token had expired */
+    val expiredTokens = AtomicLong()
+    /** Number of access tokens issued through a session refresh */
+    val tokenRefreshes = AtomicLong()
+
+    private val server = MockWebServer()
+    private val random = Random()
+
+    /** Base URL to hand to a [StitchClient] */
+    val baseUrl: String
+        get() = server.url("/").toString().removeSuffix("/")
+
+    fun start(): FakeStitchServer {
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse = handle(request)
+        })
+        server.start()
+        return this
+    }
+
+    override fun close() {
+        server.shutdown()
+    }
+
+    /**
+     * @return a new client talking to this server
+     */
+    fun newClient(context: Context): StitchClient = StitchClient(context, appId, baseUrl)
+
+    /**
+     * @return how many requests were made to a route, e.g. "app/{app}/functions/call"
+     */
+    fun requestCount(route: String): Long = requestCounts[route]?.get() ?: 0
+
+    private fun handle(request: RecordedRequest): MockResponse {
+        val path = request.path.removePrefix(API_PREFIX).substringBefore('?')
+        val route = path.replace(appId, "{app}")
+        requestCounts.getOrPut(route) { AtomicLong() }.incrementAndGet()
+
+        val delay = latencyMillis + if (latencyJitterMillis > 0) (random.nextDouble() * latencyJitterMillis).toLong() else 0
+        if (delay > 0) {
+            Thread.sleep(delay)
+        }
+
+        return when {
+            route == "app/{app}/auth/providers" && request.method == "GET" ->
+                mockResponseBuilder("""[{"type":"anon/user","name":"anon-user"}]""")
+            route.startsWith("app/{app}/auth/providers/") && route.endsWith("/login") ->
+                login()
+            route == "auth/session" && request.method == "POST" ->
+                refreshSession()
+            route == "auth/session" && request.method == "DELETE" ->
+                MockResponse().setResponseCode(204)
+            route == "app/{app}/functions/call" ->
+                authenticated(request) { callFunction(Document.parse(request.body.readUtf8())) }
+            route == "app/{app}/functions/batch" && supportsFunctionBatch ->
+                authenticated(request) { callFunctionBatch(request.body.readUtf8()) }
+            route == "app/{app}/push/providers" ->
+                authenticated(request) { mockResponseBuilder("[]") }
+            route.startsWith("app/{app}/push/providers/") && route.endsWith("/registration") ->
+                authenticated(request) { MockResponse().setResponseCode(204) }
+            else ->
+                mockResponseBuilder("""{"error":"no such route: $path"}""", 404)
+        }
+    }
+
+    private fun login(): MockResponse {
+        val userId = ObjectId().toHexString()
+        return mockResponseBuilder(Document("access_token", newAccessToken(userId))
+                .append("refresh_token", UUID.randomUUID().toString())
+                .append("user_id", userId)
+                .append("device_id", ObjectId().toHexString())
+                .toJson())
+    }
+
+    private fun refreshSession(): MockResponse {
+        tokenRefreshes.incrementAndGet()
+        return mockResponseBuilder(Document("access_token", newAccessToken(ObjectId().toHexString())).toJson())
+    }
+
+    private fun newAccessToken(userId: String): String {
+        val now = System.currentTimeMillis()
+        return Jwts.builder()
+                .setSubject(userId)
+                .setIssuedAt(Date(now))
+                .setExpiration(Date(now + CLAIMED_TOKEN_TTL_MILLIS))
+                .claim("name", "anon-user")
+                .claim("typ", "access")
+                .claim("iat_ms", now)
+                .signWith(SignatureAlgorithm.HS256, SIGNING_KEY)
+                .compact()
+    }
+
+    private fun authenticated(request: RecordedRequest, respond: () -> MockResponse): MockResponse {
+        val token = request.getHeader("Authorization")?.removePrefix("Bearer ")
+                ?: return invalidSession("missing access token")
+        val issuedAt = try {
+            (Jwts.parser().setSigningKey(SIGNING_KEY).parseClaimsJws(token).body["iat_ms"] as Number).toLong()
+        } catch (e: Exception) {
+            return invalidSession("invalid access token")
+        }
+
+        if (System.currentTimeMillis() - issuedAt > accessTokenTtlMillis) {
+            expiredTokens.incrementAndGet()
+            return invalidSession("access token expired")
+        }
+        return respond()
+    }
+
+    private fun invalidSession(message: String): MockResponse =
+            mockResponseBuilder("""{"error":"invalid session: $message","error_code":"InvalidSession"}""", 401)
+
+    private fun callFunction(call: Document): MockResponse {
+        if (functionLatencyMillis > 0) {
+            Thread.sleep(functionLatencyMillis)
+        }
+        if (throttled) {
+            throttledCalls.incrementAndGet()
+            return mockResponseBuilder("Too Many Requests", 429, "text/plain")
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet()
+            return mockResponseBuilder("Service Unavailable", 503, "text/plain")
+        }
+        servedCalls.add(call)
+        return mockResponseBuilder(getResult(call))
+    }
+
+    private fun callFunctionBatch(body: String): MockResponse {
+        val calls = Document.parse("{\"calls\": $body}").get("calls") as List<*>
+        val results = calls.joinToString(",", "[", "]") {
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet()
+                """{"error":"service unavailable","error_code":"Unknown"}"""
+            } else {
+                """{"result":${getResult(it as Document)}}"""
+            }
+        }
+        return mockResponseBuilder(results)
+    }
+
+    /**
+     * @return the extended JSON result of a function call, shaped like what the MongoDB service
+     * returns for the MongoClient operations
+     */
+    private fun getResult(call: Document): String = when (call.getString("name")) {
+        "find" -> find((call["arguments"] as List<*>)[0] as Document)
+        "count" -> """{"${'$'}numberLong":"$findResultSize"}"""
+        "insertOne" -> Document("insertedId", ObjectId()).toJson(EXTENDED_JSON)
+        "insertMany" -> Document("insertedIds", listOf(ObjectId())).toJson(EXTENDED_JSON)
+        "updateOne", "updateMany" -> """{"matchedCount":1,"modifiedCount":1}"""
+        "deleteOne", "deleteMany" -> """{"deletedCount":1}"""
+        else -> Document("arguments", call["arguments"]).toJson(EXTENDED_JSON)
+    }
+
+    /**
+     * Serves a find over [findResultSize] documents with ascending IDs. Queries are ignored
+     * except for the {"$and": [query, {"_id": {"$gt": id}}]} form that paged finds use, which
+     * like the server only matches IDs of the same type, and the
+     * {"$and": [query, {"_id": {"$not": {"$type": type}}}]} form they check ID types with.
+     */
+    private fun find(arguments: Document): String {
+        val and = (arguments["query"] as? Document)?.get("\$and") as? List<*>
+        val condition = (and?.getOrNull(1) as? Document)?.get("_id") as? Document
+        val after = condition?.get("\$gt")
+        val notType = (condition?.get("\$not") as? Document)?.get("\$type")
+        val limit = (arguments["limit"] as? Number)?.toInt() ?: findResultSize
+
+        fun id(index: Int): Any = String.format("%024x", index + 1).let {
+            if (index < findStringIdsFrom) ObjectId(it) else it
+        }
+        fun type(id: Any) = if (id is ObjectId) 7 else 2
+        return (0 until findResultSize)
+                .filter {
+                    val id = id(it)
+                    when {
+                        notType != null -> type(id) != notType
+                        after is ObjectId -> id is ObjectId && id > after
+                        after is String -> id is String && id > after
+                        else -> true
+                    }
+                }
+                .take(limit)
+                .joinToString(",", "[", "]") {
+                    Document("_id", id(it))
+                            .append("text", "item $it")
+                            .append("checked", it % 2 == 0)
+                            .append("created", Date())
+                            .toJson(EXTENDED_JSON)
+                }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mongodb.stitch.load
+
+import com.google.android.gms.tasks.Task
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Drives an operation, typically a [com.mongodb.stitch.android.StitchClient] or
+ * [com.mongodb.stitch.android.services.mongodb.MongoClient] call, with a fixed number of calls
+ * in flight at all times. Each call is issued as soon as a previous one completes, so the
+ * throughput measured is what the client sustains at that concurrency.
+ *
+ * @param[concurrency] number of calls kept in flight
+ * @param[requests] number of calls to make in total
+ * @param[warmUpRequests] number of calls made and discarded beforehand
+ */
+class LoadGenerator(private val concurrency: Int,
+                    private val requests: Int,
+                    private val warmUpRequests: Int = 0) {
+    /** Completes calls on whichever thread finished them rather than queueing on the main thread */
+    private val directExecutor = Executor { it.run() }
+
+    /**
+     * Runs the load and blocks until every call has completed.
+     *
+     * @param[operation] starts one call
+     *
+     * @return the throughput and latencies observed
+     */
+    fun measure(operation: () -> Task<*>): LoadReport {
+        if (warmUpRequests > 0) {
+            drive(warmUpRequests, operation)
+        }
+        return drive(requests, operation)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun drive(count: Int, operation: () -> Task<*>): LoadReport {
+        val latencies = LongArray(count)
+        val failures = AtomicInteger()
+        val issued = AtomicInteger()
+        val done = CountDownLatch(count)
+
+        fun issue() {
+            val index = issued.getAndIncrement()
+            if (index >= count) {
+                return
+            }
+
+            val start = System.nanoTime()
+            val task = try {
+                operation() as Task<Any?>
+            } catch (e: Exception) {
+                null
+            }
+            if (task == null) {
+                latencies[index] = System.nanoTime() - start
+                failures.incrementAndGet()
+                done.countDown()
+                issue()
+                return
+            }
+
+            task.addOnCompleteListener(directExecutor) {
+                latencies[index] = System.nanoTime() - start
+                if (!it.isSuccessful) {
+                    failures.incrementAndGet()
+                }
+                done.countDown()
+                issue()
+            }
+        }
+
+        val start = System.nanoTime()
+        repeat(minOf(concurrency, count)) { issue() }
+        done.await()
+        return LoadReport(concurrency, latencies, failures.get(), System.nanoTime() - start)
+    }
+}
+
+/**
+ * The outcome of a [LoadGenerator] run.
+ *
+ * @param[concurrency] number of calls kept in flight
+ * @param[latenciesNanos] latency of each call
+ * @param[failures] number of calls that failed
+ * @param[elapsedNanos] wall clock time of the whole run
+ */
+class LoadReport(val concurrency: Int,
+                 latenciesNanos: LongArray,
+                 val failures: Int,
+                 val elapsedNanos: Long) {
+    private val sorted = latenciesNanos.sortedArray()
+
+    val requests: Int
+        get() = sorted.size
+
+    /** Completed calls per second */
+    val throughput: Double
+        get() = requests / (elapsedNanos / 1e9)
+
+    /**
+     * @param[percentile] percentile to read, between 0 and 100
+     * @param[unit] unit to express the latency in
+     *
+     * @return the latency the given percentage of calls did not exceed
+     */
+    fun percentile(percentile: Double, unit: TimeUnit = TimeUnit.MILLISECONDS): Long {
+        if (sorted.isEmpty()) {
+            return 0
+        }
+        val rank = Math.ceil(percentile / 100 * sorted.size).toInt().coerceIn(1, sorted.size)
+        return unit.convert(sorted[rank - 1], TimeUnit.NANOSECONDS)
+    }
+
+    override fun toString(): String = String.format(
+            "requests=%d concurrency=%d failures=%d throughput=%.1f/s p50=%dms p95=%dms p99=%dms max=%dms",
+            requests, concurrency, failures, throughput,
+            percentile(50.0), percentile(95.0), percentile(99.0), percentile(100.0))
+}
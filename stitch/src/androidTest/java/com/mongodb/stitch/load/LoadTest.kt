@@ -0,0 +1,102 @@
+package com.mongodb.stitch.load
+
+import android.content.Context
+import android.support.test.InstrumentationRegistry
+import android.support.test.runner.AndroidJUnit4
+import android.util.Log
+import com.mongodb.stitch.android.StitchClient
+import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProvider
+import com.mongodb.stitch.android.services.mongodb.MongoClient
+import com.mongodb.stitch.await
+import com.mongodb.stitch.clearStitchClient
+import org.bson.Document
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Drive [StitchClient] and [MongoClient] against a [FakeStitchServer] and report throughput
+ * and latency percentiles to logcat under the "StitchLoad" tag.
+ */
+@RunWith(AndroidJUnit4::class)
+class LoadTest {
+    companion object {
+        private const val TAG = "StitchLoad"
+    }
+
+    /** Base context from test runner */
+    private val instrumentationCtx: Context by lazy { InstrumentationRegistry.getContext() }
+
+    private lateinit var server: FakeStitchServer
+    private lateinit var stitchClient: StitchClient
+    private lateinit var items: MongoClient.Collection
+
+    @Before
+    fun setup() {
+        server = FakeStitchServer().start()
+        stitchClient = server.newClient(instrumentationCtx)
+        clearStitchClient(instrumentationCtx, stitchClient)
+        await(stitchClient.logInWithProvider(AnonymousAuthProvider()))
+        items = MongoClient(stitchClient, "mongodb-atlas").getDatabase("todo").getCollection("items")
+    }
+
+    @After
+    fun teardown() {
+        server.close()
+    }
+
+    @Test
+    fun testFindThroughput() {
+        server.latencyMillis = 20
+        server.latencyJitterMillis = 10
+
+        val report = LoadGenerator(concurrency = 8, requests = 500, warmUpRequests = 50).measure {
+            items.find(Document("checked", false), 50)
+        }
+        Log.i(TAG, "find: $report")
+
+        assertEquals(0, report.failures)
+    }
+
+    @Test
+    fun testMixedOperationsThroughput() {
+        server.latencyMillis = 20
+
+        val next = AtomicInteger()
+        val report = LoadGenerator(concurrency = 16, requests = 1000).measure {
+            when (next.getAndIncrement() % 4) {
+                0 -> items.find(Document(), 20)
+                1 -> items.count(Document("checked", true))
+                2 -> items.insertOne(Document("text", "new item"))
+                else -> items.updateOne(Document("text", "new item"), Document("\$set", Document("checked", true)))
+            }
+        }
+        Log.i(TAG, "mixed: $report")
+
+        assertEquals(0, report.failures)
+    }
+
+    @Test
+    fun testSurvivesInjectedErrorsAndTokenExpiry() {
+        server.latencyMillis = 10
+        server.errorRate = 0.05
+        server.accessTokenTtlMillis = 2000
+
+        val report = LoadGenerator(concurrency = 8, requests = 500).measure {
+            items.find(Document(), 10)
+        }
+        Log.i(TAG, "find with errors and expiring tokens: $report; " +
+                "injected errors=${server.injectedErrors.get()}, " +
+                "expired tokens=${server.expiredTokens.get()}, " +
+                "token refreshes=${server.tokenRefreshes.get()}")
+
+        // Reads are retried and expired sessions refreshed, so the faults stay invisible to callers
+        assertEquals(0, report.failures)
+        assertTrue(server.injectedErrors.get() > 0)
+        assertTrue(server.tokenRefreshes.get() > 0)
+    }
+}
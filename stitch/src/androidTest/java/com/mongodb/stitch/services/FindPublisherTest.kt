@@ -0,0 +1,136 @@
+package com.mongodb.stitch.services
+
+import android.content.Context
+import android.support.test.InstrumentationRegistry
+import android.support.test.runner.AndroidJUnit4
+import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProvider
+import com.mongodb.stitch.android.services.mongodb.MongoClient
+import com.mongodb.stitch.await
+import com.mongodb.stitch.clearStitchClient
+import com.mongodb.stitch.load.FakeStitchServer
+import org.bson.Document
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+/**
+ * Test that [MongoClient.Collection.findPublisher] pages through a result as it is requested.
+ */
+@RunWith(AndroidJUnit4::class)
+class FindPublisherTest {
+    /** Base context from test runner */
+    private val instrumentationCtx: Context by lazy { InstrumentationRegistry.getContext() }
+
+    private lateinit var server: FakeStitchServer
+    private lateinit var items: MongoClient.Collection
+
+    @Before
+    fun setup() {
+        server = FakeStitchServer().start()
+        val stitchClient = server.newClient(instrumentationCtx)
+        clearStitchClient(instrumentationCtx, stitchClient)
+        await(stitchClient.logInWithProvider(AnonymousAuthProvider()))
+        items = MongoClient(stitchClient, "mongodb-atlas").getDatabase("todo").getCollection("items")
+    }
+
+    @After
+    fun teardown() {
+        server.close()
+    }
+
+    @Test
+    fun testEmitsEveryPage() {
+        server.findResultSize = 25
+        val subscriber = RecordingSubscriber(requestSize = 1)
+        items.findPublisher(Document(), 10).subscribe(subscriber)
+
+        assertTrue(subscriber.done.await(30, TimeUnit.SECONDS))
+        assertNull(subscriber.error)
+        assertEquals((0 until 25).map { "item $it" }, subscriber.documents.map { it.getString("text") })
+        // Three pages, then a check that no _id of another type was left behind
+        assertEquals(4, server.requestCount("app/{app}/functions/call"))
+    }
+
+    @Test
+    fun testFetchesOnlyWhatIsRequested() {
+        server.findResultSize = 25
+        val subscriber = RecordingSubscriber(requestSize = 0)
+        items.findPublisher(Document(), 10).subscribe(subscriber)
+
+        subscriber.subscription.request(5)
+        while (subscriber.documents.size < 5) {
+            Thread.sleep(10)
+        }
+        subscriber.subscription.cancel()
+
+        assertEquals(5, subscriber.documents.size)
+        assertEquals(1, server.requestCount("app/{app}/functions/call"))
+    }
+
+    @Test
+    fun testFailsOnMixedIdTypes() {
+        server.findResultSize = 10
+        server.findStringIdsFrom = 5
+        val subscriber = RecordingSubscriber(requestSize = 1)
+        items.findPublisher(Document(), 10).subscribe(subscriber)
+
+        assertTrue(subscriber.done.await(30, TimeUnit.SECONDS))
+        assertTrue(subscriber.error is IllegalStateException)
+        assertTrue(subscriber.documents.isEmpty())
+    }
+
+    @Test
+    fun testFailsOnIdTypesBeyondTheLastPage() {
+        server.findResultSize = 25
+        server.findStringIdsFrom = 20
+        val subscriber = RecordingSubscriber(requestSize = 1)
+        items.findPublisher(Document(), 10).subscribe(subscriber)
+
+        // Every page holds ObjectIds only, but the string _ids cannot be paged to
+        assertTrue(subscriber.done.await(30, TimeUnit.SECONDS))
+        assertTrue(subscriber.error is IllegalStateException)
+        assertEquals(20, subscriber.documents.size)
+    }
+
+    /**
+     * Records what it is sent, requesting [requestSize] more documents after each one if positive.
+     */
+    private class RecordingSubscriber(private val requestSize: Long) : Subscriber<Document> {
+        val documents = CopyOnWriteArrayList<Document>()
+        val done = CountDownLatch(1)
+        @Volatile var error: Throwable? = null
+        lateinit var subscription: Subscription
+
+        override fun onSubscribe(s: Subscription) {
+            subscription = s
+            if (requestSize > 0) {
+                s.request(requestSize)
+            }
+        }
+
+        override fun onNext(t: Document) {
+            documents.add(t)
+            if (requestSize > 0) {
+                subscription.request(requestSize)
+            }
+        }
+
+        override fun onError(t: Throwable) {
+            error = t
+            done.countDown()
+        }
+
+        override fun onComplete() {
+            done.countDown()
+        }
+    }
+}
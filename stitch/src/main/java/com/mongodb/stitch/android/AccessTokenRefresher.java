@@ -0,0 +1,126 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.mongodb.stitch.android.auth.AuthInfo;
+import com.mongodb.stitch.android.auth.DecodedJWT;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccessTokenRefresher refreshes the access token of a {@link StitchClient} shortly before it
+ * expires so that requests do not have to wait on a refresh themselves. Refreshes are spread out
+ * with jitter and failed refreshes are retried with exponential backoff.
+ */
+class AccessTokenRefresher {
+    private static final String TAG = "Stitch.TokenRefresher";
+
+    private static final long REFRESH_LEAD_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    private static final long MAX_JITTER_MILLIS = TimeUnit.SECONDS.toMillis(15);
+    private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final StitchClient _stitchClient;
+    private final ScheduledExecutorService _scheduler;
+    private final Random _random;
+
+    @Nullable
+    private ScheduledFuture<?> _scheduled;
+    private long _backoffMillis;
+
+    /**
+     * @param stitchClient The client whose access token should be kept fresh.
+     * @param scheduler    The scheduler to run refreshes on.
+     */
+    AccessTokenRefresher(
+            final StitchClient stitchClient,
+            final ScheduledExecutorService scheduler
+    ) {
+        _stitchClient = stitchClient;
+        _scheduler = scheduler;
+        _random = new Random();
+        _backoffMillis = INITIAL_BACKOFF_MILLIS;
+    }
+
+    /**
+     * Schedules a refresh ahead of the expiration of the access token of the given session,
+     * replacing any previously scheduled refresh. A token that cannot be decoded is logged and
+     * left to be refreshed when a request is rejected with it.
+     *
+     * @param authInfo The session whose access token is currently in use.
+     */
+    synchronized void scheduleFor(final AuthInfo authInfo) {
+        final long expiresAtMillis;
+        try {
+            final DecodedJWT accessToken = authInfo.getDecodedAccessToken();
+            expiresAtMillis = TimeUnit.SECONDS.toMillis(accessToken.getExpiration());
+        } catch (final StitchException e) {
+            Log.w(TAG, "Cannot schedule refresh for malformed access token", e);
+            return;
+        }
+
+        final long jitterMillis = (long) (_random.nextDouble() * MAX_JITTER_MILLIS);
+        final long delayMillis =
+                expiresAtMillis - REFRESH_LEAD_MILLIS - jitterMillis - System.currentTimeMillis();
+        scheduleAfter(Math.max(0, delayMillis));
+    }
+
+    /**
+     * Cancels any scheduled refresh.
+     */
+    synchronized void stop() {
+        if (_scheduled != null) {
+            _scheduled.cancel(false);
+            _scheduled = null;
+        }
+        _backoffMillis = INITIAL_BACKOFF_MILLIS;
+    }
+
+    private void scheduleAfter(final long delayMillis) {
+        if (_scheduled != null) {
+            _scheduled.cancel(false);
+        }
+        _scheduled = _scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                refresh();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        if (!_stitchClient.isAuthenticated()) {
+            return;
+        }
+
+        // A successful refresh reschedules through StitchClient, so only failures are handled here
+        _stitchClient.refreshAccessToken().addOnCompleteListener(new OnCompleteListener<Void>() {
+            @Override
+            public void onComplete(@NonNull final Task<Void> task) {
+                synchronized (AccessTokenRefresher.this) {
+                    if (task.isSuccessful()) {
+                        _backoffMillis = INITIAL_BACKOFF_MILLIS;
+                        return;
+                    }
+
+                    if (!_stitchClient.isAuthenticated()) {
+                        return;
+                    }
+
+                    Log.w(TAG, "Error refreshing access token ahead of expiration", task.getException());
+                    final long delayMillis = _backoffMillis / 2 +
+                            (long) (_random.nextDouble() * (_backoffMillis / 2));
+                    _backoffMillis = Math.min(_backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                    scheduleAfter(delayMillis);
+                }
+            }
+        });
+    }
+}
@@ -35,7 +35,7 @@ public class Auth {
     @NonNull
     private final AuthInfo _authInfo;
     @Nullable
-    private UserProfile _userProfile;
+    private volatile UserProfile _userProfile;
     private final ObjectMapper _objMapper;
 
     Auth(@NonNull final StitchClient stitchClient,
@@ -55,10 +55,21 @@ public class Auth {
      * @return profile of the given user
      */
     public Task<UserProfile> getUserProfile() {
+        return _stitchClient.getInFlightRequests().share(
+                StitchClient.getInFlightKey(Request.Method.GET, Paths.USER_PROFILE, null),
+                new InFlightRequests.Factory<UserProfile>() {
+                    @Override
+                    public Task<UserProfile> start() {
+                        return fetchUserProfile();
+                    }
+                });
+    }
+
+    private Task<UserProfile> fetchUserProfile() {
         return _stitchClient.executeRequest(
                 Request.Method.GET,
                 Paths.USER_PROFILE
-        ).continueWith(new Continuation<String, UserProfile>() {
+        ).continueWith(_stitchClient.getDecodeExecutor(), new Continuation<String, UserProfile>() {
             @Override
             public UserProfile then(@NonNull Task<String> task) throws Exception {
                 if (!task.isSuccessful()) {
@@ -89,7 +100,7 @@ public class Auth {
                 new Document("name", name).toJson(),
                 true,
                 true
-        ).continueWith(new Continuation<String, APIKey>() {
+        ).continueWith(_stitchClient.getDecodeExecutor(), new Continuation<String, APIKey>() {
             @Override
             public APIKey then(@NonNull final Task<String> task) throws Exception {
                 if (task.isSuccessful()) {
@@ -118,7 +129,7 @@ public class Auth {
                 null,
                 true,
                 true
-        ).continueWith(new Continuation<String, APIKey>() {
+        ).continueWith(_stitchClient.getDecodeExecutor(), new Continuation<String, APIKey>() {
             @Override
             public APIKey then(@NonNull final Task<String> task) throws Exception {
                 if (task.isSuccessful()) {
@@ -142,7 +153,7 @@ public class Auth {
                 null,
                 true,
                 true
-        ).continueWith(new Continuation<String, List<APIKey>>() {
+        ).continueWith(_stitchClient.getDecodeExecutor(), new Continuation<String, List<APIKey>>() {
             @Override
             public List<APIKey> then(@NonNull final Task<String> task) throws Exception {
                 if (task.isSuccessful()) {
@@ -0,0 +1,55 @@
+package com.mongodb.stitch.android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * ForegroundWarmUp warms up the connection of a {@link StitchClient} whenever the app returns
+ * to the foreground, since idle connections are usually closed while it is in the background.
+ */
+class ForegroundWarmUp implements Application.ActivityLifecycleCallbacks {
+    private final StitchClient _stitchClient;
+    private int _startedActivities;
+
+    /**
+     * @param stitchClient The client to warm up.
+     */
+    ForegroundWarmUp(final StitchClient stitchClient) {
+        _stitchClient = stitchClient;
+    }
+
+    @Override
+    public void onActivityStarted(final Activity activity) {
+        if (_startedActivities++ == 0) {
+            _stitchClient.warmUp();
+        }
+    }
+
+    @Override
+    public void onActivityStopped(final Activity activity) {
+        if (_startedActivities > 0) {
+            _startedActivities--;
+        }
+    }
+
+    @Override
+    public void onActivityCreated(final Activity activity, final Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityResumed(final Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(final Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(final Activity activity, final Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(final Activity activity) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.mongodb.stitch.android.http.HttpResponse;
+import com.mongodb.stitch.android.http.Method;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.mongodb.stitch.android.BsonUtils.parseIterable;
+import static com.mongodb.stitch.android.StitchError.ErrorCode;
+
+/**
+ * A FunctionBatch queues several function calls and ships them to Stitch together. Each queued
+ * call gets its own task which is resolved once the batch has been sent. The calls are
+ * dispatched in parallel over the function call route unless the client has opted into the
+ * batch route with {@link StitchClient#setFunctionBatchRouteEnabled(boolean)}, in which case
+ * they are shipped in a single request.
+ *
+ * <pre>{@code
+ * final FunctionBatch batch = stitchClient.newFunctionBatch();
+ * final Task<Object> sum = batch.executeFunction("sum", 1, 2);
+ * final Task<Object> docs = batch.executeServiceFunction("find", "mongodb-atlas", query);
+ * batch.send();
+ * }</pre>
+ */
+public class FunctionBatch {
+    private static final String TAG = "Stitch.FunctionBatch";
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private static class Field {
+        private static final String RESULT = "result";
+        private static final String ERROR = "error";
+        private static final String ERROR_CODE = "error_code";
+    }
+
+    private final StitchClient _stitchClient;
+    private final List<Call> _calls;
+    private boolean _sent;
+
+    /**
+     * @param stitchClient The client to send the batch with.
+     */
+    FunctionBatch(final StitchClient stitchClient) {
+        _stitchClient = stitchClient;
+        _calls = new ArrayList<>();
+    }
+
+    /**
+     * Queues a call to a named function.
+     *
+     * @param name name of the function
+     * @param args extended JSON arguments associated with the function
+     * @return A task containing the return value of the function once the batch is sent.
+     */
+    public Task<Object> executeFunction(final String name, final Object... args) {
+        return executeServiceFunction(name, null, args);
+    }
+
+    /**
+     * Queues a call to a named function associated with a service.
+     *
+     * @param name        name of the function
+     * @param serviceName name of your service
+     * @param args        extended JSON arguments associated with the function
+     * @return A task containing the return value of the function once the batch is sent.
+     */
+    public synchronized Task<Object> executeServiceFunction(
+            final String name,
+            @Nullable final String serviceName,
+            final Object... args
+    ) {
+        if (_sent) {
+            throw new StitchException.StitchClientException("Function batch has already been sent");
+        }
+
+        final Call call = new Call(StitchClient.getFunctionCallDocument(name, serviceName, args));
+        _calls.add(call);
+        return call._future.getTask();
+    }
+
+    /**
+     * @return The number of calls queued in this batch.
+     */
+    public synchronized int size() {
+        return _calls.size();
+    }
+
+    /**
+     * Sends all queued calls. A batch can only be sent once.
+     *
+     * @return A task that completes once every call in the batch has completed.
+     */
+    public synchronized Task<Void> send() {
+        if (_sent) {
+            throw new StitchException.StitchClientException("Function batch has already been sent");
+        }
+        _sent = true;
+
+        final List<Task<Object>> tasks = new ArrayList<>(_calls.size());
+        for (final Call call : _calls) {
+            tasks.add(call._future.getTask());
+        }
+
+        // A batch of one gains nothing from the batch route
+        if (_calls.size() == 1 || !_stitchClient.isFunctionBatchRouteEnabled()) {
+            dispatchIndividually();
+        } else if (!_calls.isEmpty()) {
+            dispatchBatch();
+        }
+
+        return Tasks.whenAll(tasks);
+    }
+
+    private void dispatchBatch() {
+        final List<Document> documents = new ArrayList<>(_calls.size());
+        for (final Call call : _calls) {
+            documents.add(call._document);
+        }
+
+        _stitchClient.executeFunctionBatch(BsonUtils.toJsonBytes(documents)).addOnCompleteListener(
+                _stitchClient.getDecodeExecutor(),
+                new OnCompleteListener<HttpResponse>() {
+                    @Override
+                    public void onComplete(@NonNull final Task<HttpResponse> task) {
+                        if (task.isSuccessful()) {
+                            deliverResults(task.getResult());
+                            return;
+                        }
+
+                        final Exception error = task.getException();
+                        if (error instanceof StitchException.StitchServiceException &&
+                                ((StitchException.StitchServiceException) error).getStatusCode() == HTTP_NOT_FOUND) {
+                            Log.w(TAG, "Function batch route is not served; dispatching calls individually");
+                            _stitchClient.setFunctionBatchRouteEnabled(false);
+                            dispatchIndividually();
+                            return;
+                        }
+
+                        Log.e(TAG, "Error while executing function batch", error);
+                        failAll(error);
+                    }
+                });
+    }
+
+    private void dispatchIndividually() {
+        for (final Call call : _calls) {
+            _stitchClient.executeFunctionCall(call._document).addOnCompleteListener(
+                    new OnCompleteListener<Object>() {
+                        @Override
+                        public void onComplete(@NonNull final Task<Object> task) {
+                            if (task.isSuccessful()) {
+                                call._future.setResult(task.getResult());
+                            } else {
+                                call._future.setException(task.getException());
+                            }
+                        }
+                    });
+        }
+    }
+
+    private void deliverResults(final HttpResponse response) {
+        final List<Object> results = new ArrayList<>(_calls.size());
+        try {
+            final long startNanos = System.nanoTime();
+            for (final Object result : parseIterable(response.getBodyAsReader())) {
+                results.add(result);
+            }
+            _stitchClient.onResponseDecoded(
+                    Method.POST, _stitchClient.getFunctionBatchRoute(), null, response, startNanos);
+        } catch (final Exception e) {
+            Log.e(TAG, "Error while decoding function batch results", e);
+            failAll(new StitchException.StitchRequestException(e));
+            return;
+        }
+
+        if (results.size() != _calls.size()) {
+            failAll(new StitchException.StitchRequestException(String.format(
+                    "Expected %d function batch results but got %d", _calls.size(), results.size())));
+            return;
+        }
+
+        final Iterator<Object> resultIt = results.iterator();
+        for (final Call call : _calls) {
+            final Object result = resultIt.next();
+            if (!(result instanceof Document)) {
+                call._future.setException(
+                        new StitchException.StitchRequestException("Malformed function batch result"));
+                continue;
+            }
+
+            final Document doc = (Document) result;
+            if (doc.containsKey(Field.ERROR)) {
+                final String errorCode = doc.getString(Field.ERROR_CODE);
+                call._future.setException(new StitchException.StitchServiceException(
+                        doc.getString(Field.ERROR),
+                        errorCode == null ? ErrorCode.UNKNOWN : ErrorCode.fromCodeName(errorCode)));
+            } else {
+                call._future.setResult(doc.get(Field.RESULT));
+            }
+        }
+    }
+
+    private void failAll(final Exception error) {
+        for (final Call call : _calls) {
+            call._future.setException(error);
+        }
+    }
+
+    /**
+     * A single queued function call.
+     */
+    private static class Call {
+        private final Document _document;
+        private final TaskCompletionSource<Object> _future;
+
+        private Call(final Document document) {
+            _document = document;
+            _future = new TaskCompletionSource<>();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.NonNull;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * InFlightRequests is a table of requests that are currently executing, keyed by a description
+ * of the request. Identical idempotent requests issued while one is already in flight share its
+ * task instead of going out over the network again.
+ */
+class InFlightRequests {
+
+    private final Map<Object, Task<?>> _inFlight;
+
+    InFlightRequests() {
+        _inFlight = new HashMap<>();
+    }
+
+    /**
+     * Factory starts a request that is not yet in flight.
+     */
+    interface Factory<T> {
+        Task<T> start();
+    }
+
+    /**
+     * Returns the task of the in-flight request with the given key, or starts a new request if
+     * there is none.
+     *
+     * @param key     The key describing the request, see {@link StitchClient#getInFlightKey}.
+     * @param factory The factory to start the request with if it is not already in flight.
+     * @return A task shared by all callers of the in-flight request.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> Task<T> share(final Object key, final Factory<T> factory) {
+        final Task<?> existing = _inFlight.get(key);
+        if (existing != null) {
+            return (Task<T>) existing;
+        }
+
+        final Task<T> task = factory.start();
+        _inFlight.put(key, task);
+        task.addOnCompleteListener(StitchClient.IMMEDIATE_EXECUTOR, new OnCompleteListener<T>() {
+            @Override
+            public void onComplete(@NonNull final Task<T> completed) {
+                synchronized (InFlightRequests.this) {
+                    if (_inFlight.get(key) == completed) {
+                        _inFlight.remove(key);
+                    }
+                }
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Forgets all in-flight requests so that later callers start their own. This must be called
+     * whenever in-flight requests are cancelled since their tasks will never complete.
+     */
+    synchronized void clear() {
+        _inFlight.clear();
+    }
+}
@@ -0,0 +1,436 @@
+package com.mongodb.stitch.android;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.stitch.android.StitchError.ErrorCode;
+
+/**
+ * An Outbox is a durable queue of replayable writes that could not reach Stitch. Queued writes
+ * are persisted on the device and replayed one at a time, in the order they were made, once the
+ * device is connected again and a user is logged in. While the outbox holds writes, new
+ * replayable writes are queued behind them rather than sent right away so that they cannot
+ * overtake them. A write that Stitch rejects is dropped from the outbox and reported to its
+ * listeners.
+ *
+ * Stitch does not deduplicate writes by their idempotency key, so a write is only queued, and
+ * only kept for another replay, after failures that show Stitch did not apply it (see
+ * {@link RetryPolicy#isNotApplied(Exception)}). A replayed write whose outcome is unknown, e.g.
+ * because it timed out after being sent, is dropped and reported rather than replayed again,
+ * so each write is applied at most once. While replays keep failing, they are retried with
+ * exponential backoff.
+ *
+ * Queued writes belong to the user that made them and are discarded when that user logs out.
+ */
+public class Outbox implements AuthListener {
+    private static final String TAG = "Stitch.Outbox";
+    private static final String SHARED_PREFERENCES_NAME = "com.mongodb.stitch.sdk.Outbox.%s";
+    private static final String ID_FORMAT = "%019d";
+    private static final int HTTP_SERVER_ERROR = 500;
+    private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static class Field {
+        private static final String CALL = "call";
+        private static final String IDEMPOTENCY_KEY = "idempotencyKey";
+    }
+
+    private final StitchClient _stitchClient;
+    private final Context _context;
+    private final SharedPreferences _preferences;
+    private final ScheduledExecutorService _scheduler;
+    private final Random _random;
+    private final Map<String, TaskCompletionSource<Object>> _pending;
+    private final List<Listener> _listeners;
+    private final BroadcastReceiver _connectivityReceiver;
+    private long _nextId;
+    private boolean _receiverRegistered;
+    private boolean _replaying;
+    // Bumped by every logout so that a replay of the logged out user cannot finish a later one
+    private long _generation;
+    @Nullable
+    private ScheduledFuture<?> _scheduledReplay;
+    private long _backoffMillis;
+
+    /**
+     * @param stitchClient The client to replay writes with.
+     * @param context      The context to persist writes and watch connectivity with.
+     * @param appId        The App ID of the client, used to keep outboxes of different apps apart.
+     * @param scheduler    The scheduler to retry failed replays on.
+     */
+    Outbox(
+            final StitchClient stitchClient,
+            final Context context,
+            final String appId,
+            final ScheduledExecutorService scheduler
+    ) {
+        _stitchClient = stitchClient;
+        _context = context.getApplicationContext();
+        _preferences = context.getSharedPreferences(
+                String.format(SHARED_PREFERENCES_NAME, appId), Context.MODE_PRIVATE);
+        _scheduler = scheduler;
+        _random = new Random();
+        _backoffMillis = INITIAL_BACKOFF_MILLIS;
+        _pending = new HashMap<>();
+        _listeners = new ArrayList<>();
+        _connectivityReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(final Context context, final Intent intent) {
+                if (isConnected()) {
+                    replay();
+                }
+            }
+        };
+
+        final SortedMap<String, String> entries = getEntries();
+        _nextId = entries.isEmpty() ? 0 : Long.parseLong(entries.lastKey()) + 1;
+        if (!entries.isEmpty()) {
+            // The initial sticky broadcast triggers a replay of writes left by a previous process
+            registerReceiver();
+        }
+    }
+
+    /**
+     * Listener is notified as queued writes are replayed. It is called for writes queued by
+     * previous runs of the app as well, whose original tasks no longer exist. Listeners are
+     * called without the outbox locked, so they may call back into the client.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a queued write has been applied by Stitch.
+         *
+         * @param id     The ID the write was queued under.
+         * @param result The return value of the write.
+         */
+        void onReplayed(String id, Object result);
+
+        /**
+         * Called when Stitch has rejected a queued write, or when a replay of it failed in a way
+         * that leaves unknown whether it was applied. The write is dropped from the outbox.
+         *
+         * @param id    The ID the write was queued under.
+         * @param error The reason the write failed.
+         */
+        void onReplayFailed(String id, Exception error);
+    }
+
+    /**
+     * Adds a listener for replayed writes.
+     *
+     * @param listener The listener that will be notified of replayed writes.
+     */
+    public synchronized void addListener(final Listener listener) {
+        _listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for replayed writes.
+     *
+     * @param listener The listener that will no longer be notified of replayed writes.
+     */
+    public synchronized void removeListener(final Listener listener) {
+        _listeners.remove(listener);
+    }
+
+    /**
+     * @return The number of writes waiting to be replayed.
+     */
+    public synchronized int size() {
+        return _preferences.getAll().size();
+    }
+
+    /**
+     * Replays queued writes now if the device is connected and a user is logged in. Replays
+     * also happen on their own whenever connectivity returns or a user logs in, and after a
+     * backoff when a replay failed.
+     */
+    public void replay() {
+        final String id;
+        final Document call;
+        final String idempotencyKey;
+        final long generation;
+        synchronized (this) {
+            if (_replaying || !_stitchClient.isAuthenticated() || !isConnected()) {
+                return;
+            }
+            cancelScheduledReplay();
+
+            Document stored = null;
+            String storedId = null;
+            for (final Map.Entry<String, String> entry : getEntries().entrySet()) {
+                try {
+                    stored = Document.parse(entry.getValue());
+                    storedId = entry.getKey();
+                    break;
+                } catch (final Exception e) {
+                    Log.e(TAG, "Discarding unreadable queued write " + entry.getKey(), e);
+                    _preferences.edit().remove(entry.getKey()).apply();
+                }
+            }
+
+            if (stored == null) {
+                unregisterReceiver();
+                return;
+            }
+
+            id = storedId;
+            call = (Document) stored.get(Field.CALL);
+            idempotencyKey = stored.getString(Field.IDEMPOTENCY_KEY);
+            generation = _generation;
+            _replaying = true;
+        }
+
+        // One call at a time over the regular route, so that writes reach Stitch in order
+        final RequestOptions options = new RequestOptions.Builder().withIdempotencyKey(idempotencyKey).build();
+        Task<Object> replayed;
+        try {
+            replayed = _stitchClient.executeFunctionCall(call, options);
+        } catch (final StitchException e) {
+            // The user logged out since the check above
+            replayed = Tasks.forException(e);
+        }
+        replayed.addOnCompleteListener(
+                _stitchClient.getDecodeExecutor(),
+                new OnCompleteListener<Object>() {
+                    @Override
+                    public void onComplete(@NonNull final Task<Object> task) {
+                        onReplayComplete(id, generation, task);
+                    }
+                });
+    }
+
+    @Override
+    public void onLogin() {
+        replay();
+    }
+
+    @Override
+    public void onLogout() {
+        final List<TaskCompletionSource<Object>> discarded;
+        synchronized (this) {
+            // The replay in flight, if any, fails with the logout and must not hold up replays
+            // of the next user's writes
+            _generation++;
+            _replaying = false;
+            cancelScheduledReplay();
+            _backoffMillis = INITIAL_BACKOFF_MILLIS;
+            final int size = size();
+            if (size == 0) {
+                return;
+            }
+
+            Log.w(TAG, String.format("Discarding %d queued writes of the logged out user", size));
+            _preferences.edit().clear().apply();
+            discarded = new ArrayList<>(_pending.values());
+            _pending.clear();
+            unregisterReceiver();
+        }
+
+        for (final TaskCompletionSource<Object> pending : discarded) {
+            pending.setException(new StitchException.StitchClientException(
+                    "Queued write was discarded because the user logged out"));
+        }
+    }
+
+    /**
+     * Persists a write to be replayed later. A replay is scheduled in case nothing else, like
+     * connectivity returning, would trigger one.
+     *
+     * @param call           The document describing the function call of the write.
+     * @param idempotencyKey The key identifying the write across replays.
+     * @return A task containing the return value of the write once it has been replayed.
+     */
+    synchronized Task<Object> enqueue(final Document call, final String idempotencyKey) {
+        final String id = String.format(ID_FORMAT, _nextId++);
+        final Document stored = new Document(Field.CALL, call).append(Field.IDEMPOTENCY_KEY, idempotencyKey);
+        _preferences.edit().putString(id, stored.toJson()).apply();
+
+        final TaskCompletionSource<Object> future = new TaskCompletionSource<>();
+        _pending.put(id, future);
+        registerReceiver();
+        if (!_replaying && (_scheduledReplay == null || _scheduledReplay.isDone())) {
+            scheduleReplay();
+        }
+        return future.getTask();
+    }
+
+    /**
+     * @return Whether or not the device currently has network connectivity.
+     */
+    boolean isConnected() {
+        final ConnectivityManager connectivityManager =
+                (ConnectivityManager) _context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return true;
+        }
+        final NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        return networkInfo != null && networkInfo.isConnected();
+    }
+
+    /**
+     * @param e The reason a write failed.
+     * @return Whether or not the write should be queued, which is only the case if Stitch cannot
+     * have applied it. A write that may have been applied is failed instead.
+     */
+    static boolean shouldQueue(final Exception e) {
+        return RetryPolicy.isNotApplied(e);
+    }
+
+    /**
+     * @param e The reason a replayed write failed.
+     * @return Whether or not the write should stay queued and be replayed again later.
+     */
+    private static boolean shouldKeep(final Exception e) {
+        if (e instanceof StitchException.StitchServiceException &&
+                ((StitchException.StitchServiceException) e).getErrorCode() == ErrorCode.INVALID_SESSION) {
+            return true;
+        }
+        // A client side failure, e.g. no logged in user, happens before the write is sent
+        return shouldQueue(e) || e instanceof StitchException.StitchClientException;
+    }
+
+    /**
+     * @param e The reason a replayed write failed.
+     * @return Whether or not Stitch answered and refused the write, as opposed to the outcome
+     * of the write being unknown.
+     */
+    private static boolean isRejected(final Exception e) {
+        return e instanceof StitchException.StitchServiceException &&
+                ((StitchException.StitchServiceException) e).getStatusCode() < HTTP_SERVER_ERROR;
+    }
+
+    private void onReplayComplete(final String id, final long generation, final Task<Object> task) {
+        final TaskCompletionSource<Object> pending;
+        final List<Listener> listeners;
+        final boolean replayNext;
+        synchronized (this) {
+            if (generation != _generation) {
+                // Discarded by a logout while the write was in flight
+                return;
+            }
+            _replaying = false;
+            if (!_preferences.contains(id)) {
+                return;
+            }
+
+            final Exception error = task.getException();
+            if (task.isSuccessful()) {
+                _backoffMillis = INITIAL_BACKOFF_MILLIS;
+                replayNext = true;
+            } else if (shouldKeep(error)) {
+                // Later writes must not overtake this one, so keep them all for the next replay
+                Log.w(TAG, "Stopped replaying queued writes", error);
+                scheduleReplay();
+                return;
+            } else if (isRejected(error)) {
+                Log.e(TAG, "Stitch rejected queued write " + id, error);
+                replayNext = true;
+            } else {
+                // Replaying a write that may have been applied could apply it twice
+                Log.e(TAG, "Dropping queued write " + id + " that may or may not have been applied", error);
+                scheduleReplay();
+                replayNext = false;
+            }
+
+            _preferences.edit().remove(id).apply();
+            pending = _pending.remove(id);
+            listeners = new ArrayList<>(_listeners);
+        }
+
+        if (task.isSuccessful()) {
+            if (pending != null) {
+                pending.setResult(task.getResult());
+            }
+            for (final Listener listener : listeners) {
+                listener.onReplayed(id, task.getResult());
+            }
+        } else {
+            if (pending != null) {
+                pending.setException(task.getException());
+            }
+            for (final Listener listener : listeners) {
+                listener.onReplayFailed(id, task.getException());
+            }
+        }
+
+        if (replayNext) {
+            replay();
+        }
+    }
+
+    /**
+     * Schedules a replay after the current backoff, which grows with every consecutive failure.
+     */
+    private void scheduleReplay() {
+        cancelScheduledReplay();
+        final long delayMillis = _backoffMillis / 2 + (long) (_random.nextDouble() * (_backoffMillis / 2));
+        _backoffMillis = Math.min(_backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        _scheduledReplay = _scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                replay();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledReplay() {
+        if (_scheduledReplay != null) {
+            _scheduledReplay.cancel(false);
+            _scheduledReplay = null;
+        }
+    }
+
+    private SortedMap<String, String> getEntries() {
+        final SortedMap<String, String> entries = new TreeMap<>();
+        for (final Map.Entry<String, ?> entry : _preferences.getAll().entrySet()) {
+            if (entry.getValue() instanceof String) {
+                entries.put(entry.getKey(), (String) entry.getValue());
+            }
+        }
+        return entries;
+    }
+
+    private void registerReceiver() {
+        if (_receiverRegistered) {
+            return;
+        }
+        _context.registerReceiver(
+                _connectivityReceiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        _receiverRegistered = true;
+    }
+
+    private void unregisterReceiver() {
+        if (!_receiverRegistered) {
+            return;
+        }
+        _context.unregisterReceiver(_connectivityReceiver);
+        _receiverRegistered = false;
+    }
+}
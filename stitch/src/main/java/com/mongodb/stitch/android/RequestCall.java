@@ -0,0 +1,217 @@
+package com.mongodb.stitch.android;
+
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.mongodb.stitch.android.http.HttpRequest;
+import com.mongodb.stitch.android.http.HttpResponse;
+import com.mongodb.stitch.android.http.Priority;
+import com.mongodb.stitch.android.http.Transport;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A RequestCall is a single logical request made through a {@link StitchClient}, spanning every
+ * attempt made to complete it: retries as well as replays after refreshing the access token.
+ * It completes exactly once, either with the outcome of an attempt or because it was cancelled,
+ * in which case the attempt in flight is cancelled with it.
+ *
+ * A call reports the phases of its lifecycle as {@link RequestEvent}s.
+ */
+class RequestCall {
+    private static final String TAG = "Stitch.RequestCall";
+
+    final int method;
+    final String resource;
+    final String operation;
+    final String service;
+    @Nullable
+    final byte[] body;
+    final Map<String, String> headers;
+    final Priority priority;
+    final RetryPolicy retryPolicy;
+    final boolean idempotent;
+    final boolean refreshOnFailure;
+    final boolean useRefreshToken;
+
+    private final Transport _transport;
+    private final RequestEventListener _eventListener;
+    private final TaskCompletionSource<HttpResponse> _future;
+    private final AtomicBoolean _done;
+    private final AtomicInteger _attempts;
+    private final long _startNanos;
+    private volatile long _lapStartNanos;
+    private volatile long _bytesSent;
+    private volatile HttpRequest _current;
+    private volatile boolean _cancelled;
+
+    RequestCall(
+            final Transport transport,
+            final RequestEventListener eventListener,
+            final int method,
+            final String resource,
+            final String operation,
+            final String service,
+            @Nullable final byte[] body,
+            final Map<String, String> headers,
+            final Priority priority,
+            final RetryPolicy retryPolicy,
+            final boolean idempotent,
+            final boolean refreshOnFailure,
+            final boolean useRefreshToken
+    ) {
+        _transport = transport;
+        _eventListener = eventListener;
+        this.method = method;
+        this.resource = resource;
+        this.operation = operation;
+        this.service = service;
+        this.body = body;
+        this.headers = headers;
+        this.priority = priority;
+        this.retryPolicy = retryPolicy;
+        this.idempotent = idempotent;
+        this.refreshOnFailure = refreshOnFailure;
+        this.useRefreshToken = useRefreshToken;
+        _future = new TaskCompletionSource<>();
+        _done = new AtomicBoolean();
+        _attempts = new AtomicInteger();
+        _startNanos = System.nanoTime();
+        _lapStartNanos = _startNanos;
+    }
+
+    /**
+     * @return A task containing the response to the call.
+     */
+    Task<HttpResponse> getTask() {
+        return _future.getTask();
+    }
+
+    /**
+     * @return Whether or not the call has completed, in which case no more attempts should be
+     * made.
+     */
+    boolean isDone() {
+        return _done.get();
+    }
+
+    /**
+     * @param retries The number of retries already made.
+     * @param error   The error the last attempt failed with.
+     * @return Whether or not another attempt should be made. Writes are only attempted again
+     * if the error shows that Stitch did not apply them.
+     */
+    boolean shouldRetry(final int retries, final Exception error) {
+        return idempotent ?
+                retryPolicy.shouldRetry(retries, error) :
+                retryPolicy.shouldRetryWrite(retries, error);
+    }
+
+    /**
+     * Sends an attempt of the call, unless the call was cancelled.
+     *
+     * @param request  The request of the attempt.
+     * @param listener The listener to notify upon completion of the attempt.
+     */
+    void send(final HttpRequest request, final Transport.Listener listener) {
+        if (_cancelled) {
+            return;
+        }
+
+        _current = request;
+        _bytesSent = request.getBody() == null ? 0 : request.getBody().length;
+        _attempts.incrementAndGet();
+        emit(RequestEvent.Type.DISPATCHED, lap(), 0, null);
+        _transport.execute(request, new Transport.Listener() {
+            @Override
+            public void onResponse(final HttpResponse response) {
+                emit(RequestEvent.Type.RESPONSE_RECEIVED, lap(), response.getBody().length, null);
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onError(final StitchException.StitchRequestException e) {
+                emit(RequestEvent.Type.RESPONSE_RECEIVED, lap(), 0, e);
+                listener.onError(e);
+            }
+        });
+
+        // Cancelled while the request was being handed to the transport
+        if (_cancelled) {
+            _transport.cancel(request);
+        }
+    }
+
+    /**
+     * @param response The response to complete the call with.
+     */
+    void complete(final HttpResponse response) {
+        if (_done.compareAndSet(false, true)) {
+            emit(RequestEvent.Type.COMPLETED, System.nanoTime() - _startNanos, response.getBody().length, null);
+            _future.setResult(response);
+        }
+    }
+
+    /**
+     * @param error The error to fail the call with.
+     */
+    void fail(final Exception error) {
+        if (_done.compareAndSet(false, true)) {
+            emit(RequestEvent.Type.COMPLETED, System.nanoTime() - _startNanos, 0, error);
+            _future.setException(error);
+        }
+    }
+
+    /**
+     * Cancels the call along with the attempt in flight, if any.
+     *
+     * @param reason The error to fail the call with.
+     */
+    void cancel(final StitchException.StitchCancellationException reason) {
+        _cancelled = true;
+        fail(reason);
+
+        final HttpRequest current = _current;
+        if (current != null) {
+            _transport.cancel(current);
+        }
+    }
+
+    /**
+     * @return The time since the previous lap ended, or since the call was made if this is the
+     * first lap, in nanoseconds.
+     */
+    long lap() {
+        final long now = System.nanoTime();
+        final long elapsed = now - _lapStartNanos;
+        _lapStartNanos = now;
+        return elapsed;
+    }
+
+    /**
+     * Reports a phase of the call to its event listener. Errors thrown by the listener are
+     * logged rather than allowed to disrupt the call.
+     *
+     * @param type          The phase the call reached.
+     * @param durationNanos The duration of the phase in nanoseconds.
+     * @param bytesReceived The size of the response body, if any.
+     * @param error         The error the phase ended with, if any.
+     */
+    void emit(
+            final RequestEvent.Type type,
+            final long durationNanos,
+            final long bytesReceived,
+            @Nullable final Exception error
+    ) {
+        try {
+            _eventListener.onRequestEvent(new RequestEvent(
+                    type, method, resource, operation, _attempts.get(), _bytesSent, bytesReceived, durationNanos, error));
+        } catch (final RuntimeException e) {
+            Log.e(TAG, "Error in request event listener", e);
+        }
+    }
+}
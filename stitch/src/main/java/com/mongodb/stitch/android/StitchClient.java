@@ -1,20 +1,16 @@
 package com.mongodb.stitch.android;
 
+import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonArrayRequest;
-import com.android.volley.toolbox.Volley;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.android.gms.tasks.Continuation;
 import com.google.android.gms.tasks.OnCompleteListener;
@@ -33,8 +29,13 @@ import com.mongodb.stitch.android.auth.anonymous.AnonymousAuthProviderInfo;
 import com.mongodb.stitch.android.auth.oauth2.facebook.FacebookAuthProviderInfo;
 import com.mongodb.stitch.android.auth.oauth2.google.GoogleAuthProviderInfo;
 import com.mongodb.stitch.android.http.Headers;
-import com.mongodb.stitch.android.http.Volley.AuthenticatedJsonStringRequest;
-import com.mongodb.stitch.android.http.Volley.JsonStringRequest;
+import com.mongodb.stitch.android.http.HttpRequest;
+import com.mongodb.stitch.android.http.HttpResponse;
+import com.mongodb.stitch.android.http.Method;
+import com.mongodb.stitch.android.http.Priority;
+import com.mongodb.stitch.android.http.ResponseCache;
+import com.mongodb.stitch.android.http.Transport;
+import com.mongodb.stitch.android.http.VolleyTransport;
 import com.mongodb.stitch.android.push.AvailablePushProviders;
 import com.mongodb.stitch.android.push.PushClient;
 import com.mongodb.stitch.android.push.PushManager;
@@ -46,14 +47,31 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.stitch.android.BsonUtils.parseValue;
 import static com.mongodb.stitch.android.StitchError.ErrorCode;
-import static com.mongodb.stitch.android.StitchError.parseRequestError;
 import static com.mongodb.stitch.android.http.Headers.GetAuthorizationBearer;
 import static java.util.Arrays.asList;
 
@@ -65,11 +83,41 @@ public class StitchClient {
     private static final String PLATFORM = "android";
     private static final String TAG = "Stitch";
     private static final String DEFAULT_BASE_URL = "https://stitch.mongodb.com";
+    private static final String RESPONSE_CACHE_DIR_NAME = "stitch-responses";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Connections stay alive for a while, so warming up more often than this gains nothing
+    private static final long MIN_WARM_UP_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    // Timers for token refreshes and retries, shared by all clients since they are rarely busy
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Stitch-Scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // Runs task listeners on the thread that completes the task
+    static final Executor IMMEDIATE_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    // Every other authenticated request waits on a refresh, so it goes ahead of them
+    private static final RequestOptions REFRESH_OPTIONS =
+            new RequestOptions.Builder().withPriority(Priority.IMMEDIATE).build();
 
     // Properties
     private static final String STITCH_PROPERTIES_FILE_NAME = "stitch.properties";
     private static final String PROP_APP_ID = "appId";
     private static final String PROP_BASE_URL = "baseUrl";
+    private static final String PROP_WARM_UP = "warmUp";
 
     // Preferences
     private static final String SHARED_PREFERENCES_NAME = "com.mongodb.stitch.sdk.SharedPreferences.%s";
@@ -82,30 +130,92 @@ public class StitchClient {
     private final Context _context;
     private final String _baseUrl;
     private final String _clientAppId;
-    private final RequestQueue _queue;
+    private final Transport _transport;
     private final ObjectMapper _objMapper;
     private final SharedPreferences _preferences;
     private final PushManager _pushManager;
     private final List<AuthListener> _authListeners;
     private final Routes routes;
+    private final AccessTokenRefresher _tokenRefresher;
+    private final InFlightRequests _inFlightRequests;
+    // Authenticated calls that have not completed yet, which a logout fails
+    private final Set<RequestCall> _liveCalls;
+    private final ResponseCache _responseCache;
+    private final Outbox _outbox;
+
+    @Nullable
+    private volatile Auth _auth;
+    private volatile Executor _decodeExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private volatile boolean _functionBatchRouteEnabled;
+    private volatile RetryPolicy _retryPolicy = RetryPolicy.DEFAULT;
+    private final Random _random = new Random();
+
+    // Connection warm-up
+    private volatile long _lastWarmUpMillis;
+    @Nullable
+    private ForegroundWarmUp _foregroundWarmUp;
+
+    // Circuit breakers keyed by the resource they guard
+    private final Map<String, CircuitBreaker> _circuitBreakers = new HashMap<>();
+    private volatile RateLimiter _rateLimiter;
+    private final Map<String, RateLimiter> _routeRateLimiters = new ConcurrentHashMap<>();
+    private final Map<String, RateLimiter> _serviceRateLimiters = new ConcurrentHashMap<>();
+
+    // Events are emitted from many threads, so listeners are read without locking
+    private final List<RequestEventListener> _requestEventListeners = new CopyOnWriteArrayList<>();
+    private StitchMetrics _metrics;
+    private final RequestEventListener _requestEvents = new RequestEventListener() {
+        @Override
+        public void onRequestEvent(final RequestEvent event) {
+            for (final RequestEventListener listener : _requestEventListeners) {
+                listener.onRequestEvent(event);
+            }
+        }
+    };
 
+    // Access token refresh shared by all requests that need it
+    private final Object _refreshLock = new Object();
     @Nullable
-    private Auth _auth;
+    private Task<Void> _pendingRefresh;
 
     /**
+     * Creates a client that executes its requests with the {@link VolleyTransport} shared by
+     * all clients in the process.
+     *
      * @param context     The Android {@link Context} that this client should be bound to.
      * @param clientAppId The App ID for the Stitch app.
      * @param baseUrl     The base URL of the Stitch Client API server.
      */
     public StitchClient(final Context context, final String clientAppId, final String baseUrl) {
+        this(context, clientAppId, baseUrl, VolleyTransport.getShared());
+    }
+
+    /**
+     * @param context     The Android {@link Context} that this client should be bound to.
+     * @param clientAppId The App ID for the Stitch app.
+     * @param baseUrl     The base URL of the Stitch Client API server.
+     * @param transport   The {@link Transport} all requests to Stitch will be executed with. It
+     *                    may be shared with other clients, e.g. a {@link VolleyTransport} sized
+     *                    for the app's concurrency needs.
+     */
+    public StitchClient(
+            final Context context,
+            final String clientAppId,
+            final String baseUrl,
+            final Transport transport
+    ) {
         _context = context;
-        _queue = Volley.newRequestQueue(context);
+        _transport = transport;
         _objMapper = CustomObjectMapper.createObjectMapper();
 
         final String prefPath = String.format(SHARED_PREFERENCES_NAME, clientAppId);
         _preferences = context.getSharedPreferences(prefPath, Context.MODE_PRIVATE);
         _authListeners = new ArrayList<>();
         _pushManager = new PushManager(context, this);
+        _tokenRefresher = new AccessTokenRefresher(this, SCHEDULER);
+        _inFlightRequests = new InFlightRequests();
+        _liveCalls = Collections.newSetFromMap(new ConcurrentHashMap<RequestCall, Boolean>());
+        _responseCache = new ResponseCache(new File(context.getCacheDir(), RESPONSE_CACHE_DIR_NAME));
 
         // Only attempt to load properties
         _properties = new Properties();
@@ -133,6 +243,13 @@ public class StitchClient {
         }
 
         routes = new Routes();
+        _outbox = new Outbox(this, context, _clientAppId, SCHEDULER);
+        addAuthListener(_outbox);
+
+        if (Boolean.parseBoolean(_properties.getProperty(PROP_WARM_UP))) {
+            warmUp();
+            setWarmUpOnForeground(true);
+        }
     }
 
     /**
@@ -184,6 +301,148 @@ public class StitchClient {
         return _context;
     }
 
+    /**
+     * @return The {@link Transport} this client executes its requests with.
+     */
+    public Transport getTransport() {
+        return _transport;
+    }
+
+    /**
+     * @return The {@link Executor} responses are decoded on.
+     */
+    public Executor getDecodeExecutor() {
+        return _decodeExecutor;
+    }
+
+    /**
+     * Sets the {@link Executor} that responses are decoded on. Tasks returned by this client
+     * complete on this executor; listeners added without an executor are still notified on the
+     * main thread, and an explicit executor can be passed to
+     * {@link Task#addOnCompleteListener(Executor, com.google.android.gms.tasks.OnCompleteListener)}
+     * to receive results elsewhere. Defaults to {@link AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param decodeExecutor The executor to decode responses on.
+     */
+    public void setDecodeExecutor(@NonNull final Executor decodeExecutor) {
+        _decodeExecutor = decodeExecutor;
+    }
+
+    /**
+     * @return The {@link RetryPolicy} requests are retried with unless they specify their own.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return _retryPolicy;
+    }
+
+    /**
+     * Sets the {@link RetryPolicy} requests are retried with unless they specify their own. Only
+     * reads and writes carrying an idempotency key are ever retried, and writes only after
+     * failures that show Stitch did not apply them. Defaults to {@link RetryPolicy#DEFAULT}.
+     *
+     * @param retryPolicy The policy to retry requests with.
+     */
+    public void setRetryPolicy(@NonNull final RetryPolicy retryPolicy) {
+        _retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets a {@link RateLimiter} that every request made by this client goes through, on top of
+     * any limiter for its route or service. Requests over the limit are queued, and only failed
+     * if they would wait longer than the limiter's {@link RateLimiter#getMaxWaitMillis()}.
+     *
+     * @param rateLimiter The limiter for all requests, or null to remove it.
+     */
+    public void setRateLimiter(@Nullable final RateLimiter rateLimiter) {
+        _rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sets a {@link RateLimiter} for the requests to a route.
+     *
+     * @param route       The route relative to the client API, as reported by
+     *                    {@link RequestEvent#getRoute()}, e.g. {@code app/<appId>/functions/call}.
+     * @param rateLimiter The limiter for the route, or null to remove it.
+     */
+    public void setRouteRateLimiter(final String route, @Nullable final RateLimiter rateLimiter) {
+        if (rateLimiter == null) {
+            _routeRateLimiters.remove(route);
+        } else {
+            _routeRateLimiters.put(route, rateLimiter);
+        }
+    }
+
+    /**
+     * Sets a {@link RateLimiter} for the calls to the functions of a service, such as the
+     * operations of a {@link com.mongodb.stitch.android.services.mongodb.MongoClient}.
+     *
+     * @param serviceName The name of the service, e.g. {@code mongodb-atlas}.
+     * @param rateLimiter The limiter for the service, or null to remove it.
+     */
+    public void setServiceRateLimiter(final String serviceName, @Nullable final RateLimiter rateLimiter) {
+        if (rateLimiter == null) {
+            _serviceRateLimiters.remove(serviceName);
+        } else {
+            _serviceRateLimiters.put(serviceName, rateLimiter);
+        }
+    }
+
+    /**
+     * Warms up the connection to Stitch by sending a lightweight HEAD request to the base URL,
+     * so that DNS resolution and the TCP and TLS handshakes are already done by the time the
+     * first real request is made. The connection is then kept alive by the {@link Transport}.
+     * Repeated calls within a short interval do nothing.
+     *
+     * Setting {@code warmUp=true} in the properties file warms up when the client is created
+     * and whenever the app returns to the foreground.
+     */
+    public void warmUp() {
+        final long now = System.currentTimeMillis();
+        if (now - _lastWarmUpMillis < MIN_WARM_UP_INTERVAL_MILLIS) {
+            return;
+        }
+        _lastWarmUpMillis = now;
+
+        _transport.execute(
+                newRequest(Method.HEAD, _baseUrl).withPriority(Priority.HIGH).build(),
+                new Transport.Listener() {
+                    @Override
+                    public void onResponse(final HttpResponse response) {
+                    }
+
+                    @Override
+                    public void onError(final StitchException.StitchRequestException error) {
+                        // Any answer means the connection is established; only log real failures
+                        if (!(error instanceof StitchException.StitchServiceException)) {
+                            Log.w(TAG, "Error while warming up connection", error);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Sets whether or not the connection to Stitch is warmed up whenever the app returns to the
+     * foreground.
+     *
+     * @param enabled Whether or not to warm up on returning to the foreground.
+     * @see #warmUp()
+     */
+    public synchronized void setWarmUpOnForeground(final boolean enabled) {
+        final Context appContext = _context.getApplicationContext();
+        if (!(appContext instanceof Application) || enabled == (_foregroundWarmUp != null)) {
+            return;
+        }
+
+        final Application application = (Application) appContext;
+        if (enabled) {
+            _foregroundWarmUp = new ForegroundWarmUp(this);
+            application.registerActivityLifecycleCallbacks(_foregroundWarmUp);
+        } else {
+            application.unregisterActivityLifecycleCallbacks(_foregroundWarmUp);
+            _foregroundWarmUp = null;
+        }
+    }
+
     // AuthInfo Methods
 
     /**
@@ -220,6 +479,7 @@ public class StitchClient {
             } catch (final IOException e) {
                 throw new StitchException(e);
             }
+            _tokenRefresher.scheduleFor(_auth.getAuthInfo());
             return true;
         }
 
@@ -235,7 +495,7 @@ public class StitchClient {
         if (!isAuthenticated()) {
             return Tasks.forResult(null);
         }
-        return executeRequest(Request.Method.DELETE, routes.AUTH_SESSION, null, false, true).continueWith(new Continuation<String, Void>() {
+        return executeRequest(Method.DELETE, routes.AUTH_SESSION, null, false, true).continueWith(new Continuation<String, Void>() {
             @Override
             public Void then(@NonNull final Task<String> task) throws Exception {
                 if (task.isSuccessful()) {
@@ -262,39 +522,54 @@ public class StitchClient {
 
         final TaskCompletionSource<String> future = new TaskCompletionSource<>();
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                getResourcePath(routes.getAuthProvidersLoginRoute(authProvider.getType())),
-                getAuthRequest(authProvider).toJson(),
-                new Response.Listener<String>() {
+        final String loginRoute = routes.getAuthProvidersLoginRoute(authProvider.getType());
+        executeUnauthenticatedRequest(
+                loginRoute,
+                newRequest(Method.POST, getResourcePath(loginRoute))
+                        .withBody(getAuthRequest(authProvider).toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
-                        try {
-                            _auth = new Auth(
-                                    StitchClient.this,
-                                    _objMapper.readValue(response, AuthInfo.class));
-                            final RefreshTokenHolder refreshToken =
-                                    _objMapper.readValue(response, RefreshTokenHolder.class);
-                            _preferences.edit().putString(PREF_AUTH_JWT_NAME, response).apply();
-                            _preferences.edit().putString(PREF_AUTH_REFRESH_TOKEN_NAME, refreshToken.getToken()).apply();
-                            _preferences.edit().putString(PREF_DEVICE_ID_NAME, _auth.getAuthInfo().getDeviceId()).apply();
-                            future.setResult(_auth.getAuthInfo().getUserId());
-                            onLogin();
-                        } catch (final IOException e) {
-                            Log.e(TAG, "Error parsing auth response", e);
-                            future.setException(new StitchException(e));
-                        }
+                    public void onResponse(final HttpResponse httpResponse) {
+                        Tasks.call(_decodeExecutor, new Callable<AuthInfo>() {
+                            @Override
+                            public AuthInfo call() throws Exception {
+                                try {
+                                    final String response = httpResponse.getBodyAsString();
+                                    final AuthInfo authInfo = _objMapper.readValue(response, AuthInfo.class);
+                                    final RefreshTokenHolder refreshToken =
+                                            _objMapper.readValue(response, RefreshTokenHolder.class);
+                                    _preferences.edit().putString(PREF_AUTH_JWT_NAME, response).apply();
+                                    _preferences.edit().putString(PREF_AUTH_REFRESH_TOKEN_NAME, refreshToken.getToken()).apply();
+                                    _preferences.edit().putString(PREF_DEVICE_ID_NAME, authInfo.getDeviceId()).apply();
+                                    return authInfo;
+                                } catch (final IOException e) {
+                                    Log.e(TAG, "Error parsing auth response", e);
+                                    throw new StitchException(e);
+                                }
+                            }
+                        }).addOnCompleteListener(new OnCompleteListener<AuthInfo>() {
+                            @Override
+                            public void onComplete(@NonNull final Task<AuthInfo> task) {
+                                if (!task.isSuccessful()) {
+                                    future.setException(task.getException());
+                                    return;
+                                }
+
+                                _auth = new Auth(StitchClient.this, task.getResult());
+                                _tokenRefresher.scheduleFor(_auth.getAuthInfo());
+                                future.setResult(_auth.getAuthInfo().getUserId());
+                                onLogin();
+                            }
+                        });
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while logging in with auth provider", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
                 });
-        request.setTag(this);
-        _queue.add(request);
 
         return future.getTask();
     }
@@ -316,27 +591,23 @@ public class StitchClient {
                 routes.USERPASS_REGISTER
         );
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                url,
-                getAuthRequest(provider.getRegistrationPayload()).toJson(),
-                new Response.Listener<String>() {
+        executeUnauthenticatedRequest(
+                String.format("%s/%s", routes.AUTH, routes.USERPASS_REGISTER),
+                newRequest(Method.POST, url)
+                        .withBody(getAuthRequest(provider.getRegistrationPayload()).toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response != null);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while logging in with auth provider", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
-                }
-        );
-
-        request.setTag(this);
-        _queue.add(request);
+                });
 
         return future.getTask();
     }
@@ -362,27 +633,23 @@ public class StitchClient {
         params.put("token", token);
         params.put("tokenId", tokenId);
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                url,
-                params.toJson(),
-                new Response.Listener<String>() {
+        executeUnauthenticatedRequest(
+                String.format("%s/%s", routes.AUTH, routes.USERPASS_CONFIRM),
+                newRequest(Method.POST, url)
+                        .withBody(params.toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response != null);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while confirming email", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
-                }
-        );
-
-        request.setTag(this);
-        _queue.add(request);
+                });
 
         return future.getTask();
     }
@@ -402,27 +669,23 @@ public class StitchClient {
                 routes.USERPASS_CONFIRM_SEND
         );
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                url,
-                new Document("email", email).toJson(),
-                new Response.Listener<String>() {
+        executeUnauthenticatedRequest(
+                String.format("%s/%s", routes.AUTH, routes.USERPASS_CONFIRM_SEND),
+                newRequest(Method.POST, url)
+                        .withBody(new Document("email", email).toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response != null);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while sending confirmation email", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
-                }
-        );
-
-        request.setTag(this);
-        _queue.add(request);
+                });
 
         return future.getTask();
     }
@@ -451,27 +714,23 @@ public class StitchClient {
         params.put(RegistrationFields.TOKEN_ID, tokenId);
         params.put(RegistrationFields.PASSWORD, password);
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                url,
-                params.toJson(),
-                new Response.Listener<String>() {
+        executeUnauthenticatedRequest(
+                String.format("%s/%s", routes.AUTH, routes.USERPASS_RESET),
+                newRequest(Method.POST, url)
+                        .withBody(params.toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response != null);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while reseting password", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
-                }
-        );
-
-        request.setTag(this);
-        _queue.add(request);
+                });
 
         return future.getTask();
     }
@@ -491,27 +750,23 @@ public class StitchClient {
                 routes.USERPASS_RESET_SEND
         );
 
-        final JsonStringRequest request = new JsonStringRequest(
-                Request.Method.POST,
-                url,
-                new Document("email", email).toJson(),
-                new Response.Listener<String>() {
+        executeUnauthenticatedRequest(
+                String.format("%s/%s", routes.AUTH, routes.USERPASS_RESET_SEND),
+                newRequest(Method.POST, url)
+                        .withBody(new Document("email", email).toJson())
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response != null);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
+                    public void onError(final StitchException.StitchRequestException error) {
                         Log.e(TAG, "Error while sending reset password email", error);
-                        future.setException(parseRequestError(error));
+                        future.setException(error);
                     }
-                }
-        );
-
-        request.setTag(this);
-        _queue.add(request);
+                });
 
         return future.getTask();
     }
@@ -534,6 +789,38 @@ public class StitchClient {
         _authListeners.remove(authListener);
     }
 
+    /**
+     * Adds a listener for the lifecycle events of requests made by this client.
+     *
+     * @param listener The listener that will receive request events.
+     */
+    public void addRequestEventListener(final RequestEventListener listener) {
+        _requestEventListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for the lifecycle events of requests made by this client.
+     *
+     * @param listener The listener that will no longer receive request events.
+     */
+    public void removeRequestEventListener(final RequestEventListener listener) {
+        _requestEventListeners.remove(listener);
+    }
+
+    /**
+     * Gets the metrics of the requests made by this client. Metrics are only recorded from the
+     * first call onwards, so that clients that never read them do not pay for them.
+     *
+     * @return The metrics of this client.
+     */
+    public synchronized StitchMetrics getMetrics() {
+        if (_metrics == null) {
+            _metrics = new StitchMetrics();
+            addRequestEventListener(_metrics);
+        }
+        return _metrics;
+    }
+
     /**
      * Gets all available auth providers for the current app.
      *
@@ -541,69 +828,87 @@ public class StitchClient {
      * of the request.
      */
     public Task<AvailableAuthProviders> getAuthProviders() {
-
-        final TaskCompletionSource<AvailableAuthProviders> future = new TaskCompletionSource<>();
-        final String url = getResourcePath(routes.AUTH_PROVIDERS);
-
-        final JsonArrayRequest request = new JsonArrayRequest(
-                Request.Method.GET,
-                url,
-                new Response.Listener<JSONArray>() {
-                    @Override
-                    public void onResponse(final JSONArray response) {
-                        final AvailableAuthProviders.Builder builder = new AvailableAuthProviders.Builder();
-                        for (int i = 0; i < response.length(); i++) {
-                            try {
-                                JSONObject info = response.getJSONObject(i);
-                                switch (info.getString("type")) {
-                                    case FacebookAuthProviderInfo.FQ_NAME:
-                                        final FacebookAuthProviderInfo fbInfo =
-                                                _objMapper.readValue(info.toString(), FacebookAuthProviderInfo.class);
-                                        builder.withFacebook(fbInfo);
-                                        break;
-                                    case GoogleAuthProviderInfo.FQ_NAME:
-                                        final GoogleAuthProviderInfo googleInfo =
-                                                _objMapper.readValue(info.toString(), GoogleAuthProviderInfo.class);
-                                        builder.withGoogle(googleInfo);
-                                        break;
-                                    case AnonymousAuthProviderInfo.FQ_NAME:
-                                        final AnonymousAuthProviderInfo anonInfo =
-                                                _objMapper.readValue(info.toString(), AnonymousAuthProviderInfo.class);
-                                        builder.withAnonymous(anonInfo);
-                                        break;
-                                    case EmailPasswordAuthProviderInfo.FQ_NAME:
-                                        final EmailPasswordAuthProviderInfo emailPassInfo =
-                                                _objMapper.readValue(info.toString(), EmailPasswordAuthProviderInfo.class);
-                                        builder.withEmailPass(emailPassInfo);
-                                        break;
-                                    case CustomAuthProviderInfo.FQ_NAME:
-                                        final CustomAuthProviderInfo customAuthProviderInfo =
-                                                _objMapper.readValue(info.toString(), CustomAuthProviderInfo.class);
-                                        builder.withCustomAuth(customAuthProviderInfo);
-                                }
-                            } catch (JSONException | IOException e) {
-                                Log.e(
-                                        TAG,
-                                        "Error while getting auth provider info",
-                                        e);
-                                future.setException(e);
-                                return;
-                            }
-                        }
-                        future.setResult(builder.build());
-                    }
-                },
-                new Response.ErrorListener() {
+        return _inFlightRequests.share(
+                getInFlightKey(Method.GET, routes.AUTH_PROVIDERS, null),
+                new InFlightRequests.Factory<AvailableAuthProviders>() {
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
-                        Log.e(TAG, "Error while getting auth provider info", error);
-                        future.setException(parseRequestError(error));
+                    public Task<AvailableAuthProviders> start() {
+                        return fetchAuthProviders();
                     }
                 });
-        request.setTag(this);
-        _queue.add(request);
+    }
 
-        return future.getTask();
+    /**
+     * Fetches the available authentication providers from Stitch, reusing the cached list if it
+     * has not changed.
+     *
+     * @return A task containing {@link AvailableAuthProviders} that can be resolved on completion
+     * of the request.
+     */
+    private Task<AvailableAuthProviders> fetchAuthProviders() {
+        return executeCachedGet(routes.AUTH_PROVIDERS, false).continueWith(_decodeExecutor, new Continuation<ResponseCache.Entry, AvailableAuthProviders>() {
+            @Override
+            public AvailableAuthProviders then(@NonNull final Task<ResponseCache.Entry> task) throws Exception {
+                if (!task.isSuccessful()) {
+                    Log.e(TAG, "Error while getting auth provider info", task.getException());
+                    throw task.getException();
+                }
+
+                final ResponseCache.Entry entry = task.getResult();
+                if (entry.getDecoded() instanceof AvailableAuthProviders) {
+                    return (AvailableAuthProviders) entry.getDecoded();
+                }
+
+                try {
+                    final AvailableAuthProviders providers =
+                            parseAuthProviders(entry.getResponse().getBodyAsString());
+                    entry.setDecoded(providers);
+                    return providers;
+                } catch (final JSONException | IOException e) {
+                    Log.e(TAG, "Error while getting auth provider info", e);
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * @param json The data returned from Stitch about the auth providers.
+     * @return A manifest of available auth providers.
+     */
+    private AvailableAuthProviders parseAuthProviders(final String json) throws JSONException, IOException {
+        final JSONArray response = new JSONArray(json);
+        final AvailableAuthProviders.Builder builder = new AvailableAuthProviders.Builder();
+        for (int i = 0; i < response.length(); i++) {
+            final JSONObject info = response.getJSONObject(i);
+            switch (info.getString("type")) {
+                case FacebookAuthProviderInfo.FQ_NAME:
+                    final FacebookAuthProviderInfo fbInfo =
+                            _objMapper.readValue(info.toString(), FacebookAuthProviderInfo.class);
+                    builder.withFacebook(fbInfo);
+                    break;
+                case GoogleAuthProviderInfo.FQ_NAME:
+                    final GoogleAuthProviderInfo googleInfo =
+                            _objMapper.readValue(info.toString(), GoogleAuthProviderInfo.class);
+                    builder.withGoogle(googleInfo);
+                    break;
+                case AnonymousAuthProviderInfo.FQ_NAME:
+                    final AnonymousAuthProviderInfo anonInfo =
+                            _objMapper.readValue(info.toString(), AnonymousAuthProviderInfo.class);
+                    builder.withAnonymous(anonInfo);
+                    break;
+                case EmailPasswordAuthProviderInfo.FQ_NAME:
+                    final EmailPasswordAuthProviderInfo emailPassInfo =
+                            _objMapper.readValue(info.toString(), EmailPasswordAuthProviderInfo.class);
+                    builder.withEmailPass(emailPassInfo);
+                    break;
+                case CustomAuthProviderInfo.FQ_NAME:
+                    final CustomAuthProviderInfo customAuthProviderInfo =
+                            _objMapper.readValue(info.toString(), CustomAuthProviderInfo.class);
+                    builder.withCustomAuth(customAuthProviderInfo);
+            }
+        }
+        return builder.build();
     }
 
     /**
@@ -616,6 +921,17 @@ public class StitchClient {
         return executeServiceFunction(name, null, args);
     }
 
+    /**
+     * Execute a named function
+     * @param name name of the function
+     * @param options options describing how the call may be executed
+     * @param args extended JSON arguments associated with the function
+     * @return return value of associated function
+     */
+    public Task<Object> executeFunction(String name, RequestOptions options, Object... args) {
+        return executeServiceFunction(name, null, options, args);
+    }
+
     /**
      * Execute a named function associated with a service
      * @param name name of the function
@@ -624,22 +940,132 @@ public class StitchClient {
      * @return return value of the associated function
      */
     public Task<Object> executeServiceFunction(String name, String serviceName, Object... args) {
+        return executeServiceFunction(name, serviceName, RequestOptions.DEFAULT, args);
+    }
+
+    /**
+     * Execute a named function associated with a service
+     * @param name name of the function
+     * @param serviceName name of your service
+     * @param options options describing how the call may be executed
+     * @param args extended JSON arguments associated with the function
+     * @return return value of the associated function
+     */
+    public Task<Object> executeServiceFunction(
+            final String name,
+            final String serviceName,
+            final RequestOptions options,
+            final Object... args
+    ) {
+        ensureAuthenticated();
+        final Document call = getFunctionCallDocument(name, serviceName, args);
+        if (options.isReplayable()) {
+            return executeReplayableCall(call, options);
+        }
+        return executeFunctionCall(call, options);
+    }
+
+    /**
+     * @return The outbox holding replayable writes that are waiting to reach Stitch.
+     */
+    public Outbox getOutbox() {
+        return _outbox;
+    }
+
+    /**
+     * Creates a new {@link FunctionBatch} that ships several function calls to Stitch in a
+     * single request.
+     *
+     * @return A new, empty batch.
+     */
+    public FunctionBatch newFunctionBatch() {
         ensureAuthenticated();
+        return new FunctionBatch(this);
+    }
+
+    /**
+     * @param name        The name of the function.
+     * @param serviceName The name of the service the function belongs to, if any.
+     * @param args        The arguments to the function.
+     * @return The document describing a call to the function.
+     */
+    static Document getFunctionCallDocument(
+            final String name,
+            @Nullable final String serviceName,
+            final Object... args
+    ) {
         final Document doc = new Document("name", name);
         doc.put("arguments", asList(args));
         if (serviceName != null) {
             doc.put("service", serviceName);
         }
+        return doc;
+    }
+
+    /**
+     * Executes a single function call.
+     *
+     * @param call The document describing the call.
+     * @return A task containing the return value of the function.
+     */
+    Task<Object> executeFunctionCall(final Document call) {
+        return executeFunctionCall(call, RequestOptions.DEFAULT);
+    }
+
+    /**
+     * Executes a single function call. Identical idempotent reads in flight at the same time
+     * share one request, but each caller decodes its own copy of the result since documents
+     * are mutable.
+     *
+     * @param call    The document describing the call.
+     * @param options The options describing how the call may be executed.
+     * @return A task containing the return value of the function.
+     */
+    Task<Object> executeFunctionCall(final Document call, final RequestOptions requestOptions) {
+        final String operation = call.getString("name");
+        final RequestOptions options = requestOptions.newBuilder()
+                .withOperation(operation)
+                .withService(call.getString("service"))
+                .build();
+        // Encoded once, straight to bytes, and reused across every attempt of the request
+        final byte[] body = BsonUtils.toJsonBytes(call);
+        final Task<HttpResponse> response;
+        // A cancellable call must not cancel the callers it would share its request with
+        if (options.isIdempotentRead() && !options.isCancellable()) {
+            response = _inFlightRequests.share(
+                    getInFlightKey(Method.POST, routes.FUNCTIONS, body),
+                    new InFlightRequests.Factory<HttpResponse>() {
+                        @Override
+                        public Task<HttpResponse> start() {
+                            return executeRawRequest(
+                                    Method.POST,
+                                    routes.FUNCTIONS,
+                                    body,
+                                    Collections.<String, String>emptyMap(),
+                                    options,
+                                    true,
+                                    false);
+                        }
+                    });
+        } else {
+            response = executeRawRequest(
+                    Method.POST,
+                    routes.FUNCTIONS,
+                    body,
+                    Collections.<String, String>emptyMap(),
+                    options,
+                    true,
+                    false);
+        }
 
-        return executeRequest(
-                Request.Method.POST,
-                routes.FUNCTIONS,
-                doc.toJson()
-        ).continueWith(new Continuation<String, Object>() {
+        return response.continueWith(_decodeExecutor, new Continuation<HttpResponse, Object>() {
             @Override
-            public Object then(@NonNull final Task<String> task) throws Exception {
+            public Object then(@NonNull final Task<HttpResponse> task) throws Exception {
                 if (task.isSuccessful()) {
-                    return parseValue(task.getResult());
+                    final long startNanos = System.nanoTime();
+                    final Object result = parseValue(task.getResult().getBodyAsReader());
+                    onResponseDecoded(Method.POST, routes.FUNCTIONS, operation, task.getResult(), startNanos);
+                    return result;
                 } else {
                     Log.e(TAG, "Error while executing function", task.getException());
                     throw task.getException();
@@ -648,44 +1074,166 @@ public class StitchClient {
         });
     }
 
-    // Network
-    private class Routes {
-        private final String AUTH = String.format("app/%s/auth", _clientAppId);
-        private final String AUTH_SESSION = "auth/session";
-
-        private final String AUTH_PROVIDERS = String.format("app/%s/auth/providers", _clientAppId);
-        String getAuthProvidersLoginRoute(String providerType) {
-            return String.format("app/%s/auth/providers/%s/login", _clientAppId, providerType);
+    /**
+     * Executes a replayable write, queueing it in the outbox if the device is offline, if the
+     * outbox already holds writes it must not overtake, or if it could not reach Stitch. A write
+     * that failed in a way that leaves unknown whether Stitch applied it is not queued, since
+     * Stitch does not deduplicate writes and replaying it could apply it twice.
+     *
+     * @param call    The document describing the call.
+     * @param options The options describing how the call may be executed.
+     * @return A task containing the return value of the function, which is not resolved until
+     * the write has reached Stitch if it had to be queued.
+     */
+    private Task<Object> executeReplayableCall(final Document call, final RequestOptions options) {
+        final String idempotencyKey = options.getIdempotencyKey() != null ?
+                options.getIdempotencyKey() : UUID.randomUUID().toString();
+        if (!_outbox.isConnected() || _outbox.size() > 0) {
+            return _outbox.enqueue(call, idempotencyKey);
         }
 
-        private final String FUNCTIONS = String.format("app/%s/functions/call", _clientAppId);
-        private final String PUSH = String.format("app/%s/push/providers", _clientAppId);
-
-        private final String USERPASS = "local-userpass/";
-
-        private final String USERPASS_REGISTER = USERPASS + "register";
-        private final String USERPASS_CONFIRM = USERPASS + "confirm";
-        private final String USERPASS_CONFIRM_SEND = USERPASS + "confirm/send";
-        private final String USERPASS_RESET = USERPASS + "reset";
-        private final String USERPASS_RESET_SEND = USERPASS + "reset/send";
+        final RequestOptions keyedOptions = options.newBuilder().withIdempotencyKey(idempotencyKey).build();
+        return executeFunctionCall(call, keyedOptions).continueWithTask(new Continuation<Object, Task<Object>>() {
+            @Override
+            public Task<Object> then(@NonNull final Task<Object> task) throws Exception {
+                if (!task.isSuccessful() && Outbox.shouldQueue(task.getException())) {
+                    Log.w(TAG, "Queueing write that could not reach Stitch", task.getException());
+                    return _outbox.enqueue(call, idempotencyKey);
+                }
+                return task;
+            }
+        });
     }
 
     /**
-     * @param resource The target resource.
-     * @return A path to the given resource.
+     * Reports that the body of a response has been decoded.
+     *
+     * @param method     The HTTP method of the request.
+     * @param resource   The resource the request targeted.
+     * @param operation  The name of the function the request called, if any.
+     * @param response   The decoded response.
+     * @param startNanos When decoding started, as given by {@link System#nanoTime()}.
      */
-    private String getResourcePath(final String resource) {
-        return String.format("%s/api/client/v2.0/%s", _baseUrl, resource);
+    void onResponseDecoded(
+            final int method,
+            final String resource,
+            @Nullable final String operation,
+            final HttpResponse response,
+            final long startNanos
+    ) {
+        emitEvent(RequestEvent.Type.DECODED, method, resource, operation,
+                response.getBody().length, System.nanoTime() - startNanos);
     }
 
     /**
-     * Executes a network request against the app. The request will be retried if there
-     * is an access token expiration.
-     *
-     * @param method   The HTTP method to use.
-     * @param resource The resource to target.
-     * @return A task containing the body of the network response that can be resolved on completion
-     * of the network request.
+     * Reports an event that is not part of a single {@link RequestCall}.
+     */
+    private void emitEvent(
+            final RequestEvent.Type type,
+            final int method,
+            final String resource,
+            @Nullable final String operation,
+            final long bytesReceived,
+            final long durationNanos
+    ) {
+        if (_requestEventListeners.isEmpty()) {
+            return;
+        }
+        try {
+            _requestEvents.onRequestEvent(new RequestEvent(
+                    type, method, resource, operation, 0, 0, bytesReceived, durationNanos, null));
+        } catch (final RuntimeException e) {
+            Log.e(TAG, "Error in request event listener", e);
+        }
+    }
+
+    /**
+     * Executes several function calls in a single request.
+     *
+     * @param calls The UTF-8 encoded JSON array of documents describing the calls.
+     * @return A task containing the undecoded response to the batch.
+     */
+    Task<HttpResponse> executeFunctionBatch(final byte[] calls) {
+        return executeRawRequest(Method.POST, routes.FUNCTIONS_BATCH, calls, true, false);
+    }
+
+    /**
+     * @return The resource function batches are sent to.
+     */
+    String getFunctionBatchRoute() {
+        return routes.FUNCTIONS_BATCH;
+    }
+
+    /**
+     * @return Whether or not {@link FunctionBatch}es are shipped in a single request to the
+     * function batch route rather than as parallel function calls.
+     */
+    public boolean isFunctionBatchRouteEnabled() {
+        return _functionBatchRouteEnabled;
+    }
+
+    /**
+     * Sets whether {@link FunctionBatch}es are shipped in a single request to the
+     * {@code functions/batch} route. The Stitch client API does not serve that route, so this
+     * should only be enabled against a server known to expose it; by default batched calls are
+     * dispatched in parallel over the regular function call route. If the server answers the
+     * batch route with a 404, the route is disabled again and the calls are dispatched
+     * individually.
+     *
+     * @param enabled Whether or not to use the function batch route.
+     */
+    public void setFunctionBatchRouteEnabled(final boolean enabled) {
+        _functionBatchRouteEnabled = enabled;
+    }
+
+    // Network
+    private class Routes {
+        private final String AUTH = String.format("app/%s/auth", _clientAppId);
+        private final String AUTH_SESSION = "auth/session";
+
+        private final String AUTH_PROVIDERS = String.format("app/%s/auth/providers", _clientAppId);
+        String getAuthProvidersLoginRoute(String providerType) {
+            return String.format("app/%s/auth/providers/%s/login", _clientAppId, providerType);
+        }
+
+        private final String FUNCTIONS = String.format("app/%s/functions/call", _clientAppId);
+        private final String FUNCTIONS_BATCH = String.format("app/%s/functions/batch", _clientAppId);
+        private final String PUSH = String.format("app/%s/push/providers", _clientAppId);
+
+        private final String USERPASS = "local-userpass/";
+
+        private final String USERPASS_REGISTER = USERPASS + "register";
+        private final String USERPASS_CONFIRM = USERPASS + "confirm";
+        private final String USERPASS_CONFIRM_SEND = USERPASS + "confirm/send";
+        private final String USERPASS_RESET = USERPASS + "reset";
+        private final String USERPASS_RESET_SEND = USERPASS + "reset/send";
+    }
+
+    /**
+     * @param resource The target resource.
+     * @return A path to the given resource.
+     */
+    private String getResourcePath(final String resource) {
+        return String.format("%s/api/client/v2.0/%s", _baseUrl, resource);
+    }
+
+    /**
+     * @param method The HTTP method to use.
+     * @param url    The fully qualified URL to target.
+     * @return A builder for a request tagged with this client so it can be cancelled on logout.
+     */
+    private HttpRequest.Builder newRequest(final int method, final String url) {
+        return new HttpRequest.Builder(method, url).withTag(this);
+    }
+
+    /**
+     * Executes a network request against the app. The request will be retried if there
+     * is an access token expiration.
+     *
+     * @param method   The HTTP method to use.
+     * @param resource The resource to target.
+     * @return A task containing the body of the network response that can be resolved on completion
+     * of the network request.
      */
     public Task<String> executeRequest(
             final int method,
@@ -712,6 +1260,26 @@ public class StitchClient {
         return executeRequest(method, resource, body, true, false);
     }
 
+    /**
+     * Executes a network request against the app. The request will be retried if there
+     * is an access token expiration.
+     *
+     * @param method   The HTTP method to use.
+     * @param resource The resource to target.
+     * @param body     The JSON body to include in the request.
+     * @param options  The options describing how the request may be executed.
+     * @return A task containing the body of the network response that can be resolved on completion
+     * of the network request.
+     */
+    public Task<String> executeRequest(
+            final int method,
+            final String resource,
+            final String body,
+            final RequestOptions options
+    ) {
+        return executeRequest(method, resource, body, options, true, false);
+    }
+
     /**
      * Executes a network request against the app.
      *
@@ -729,57 +1297,582 @@ public class StitchClient {
             final String body,
             final boolean refreshOnFailure,
             final boolean useRefreshToken
+    ) {
+        return executeRequest(method, resource, body, RequestOptions.DEFAULT, refreshOnFailure, useRefreshToken);
+    }
+
+    /**
+     * Executes a network request against the app.
+     *
+     * @param method           The HTTP method to use.
+     * @param resource         The resource to target.
+     * @param body             The JSON body to include in the request.
+     * @param options          The options describing how the request may be executed.
+     * @param refreshOnFailure Whether or not to refresh the access token if it expires.
+     * @param useRefreshToken  Whether or not to use the refresh token over the access token.
+     * @return A task containing the body of the network response that can be resolved on completion
+     * of the network request.
+     */
+    private Task<String> executeRequest(
+            final int method,
+            final String resource,
+            final String body,
+            final RequestOptions options,
+            final boolean refreshOnFailure,
+            final boolean useRefreshToken
+    ) {
+        return executeRawRequest(
+                method,
+                resource,
+                body == null ? null : body.getBytes(UTF_8),
+                Collections.<String, String>emptyMap(),
+                options,
+                refreshOnFailure,
+                useRefreshToken
+        ).continueWith(_decodeExecutor, new Continuation<HttpResponse, String>() {
+                    @Override
+                    public String then(@NonNull final Task<HttpResponse> task) throws Exception {
+                        if (!task.isSuccessful()) {
+                            throw task.getException();
+                        }
+
+                        try {
+                            return task.getResult().getBodyAsString();
+                        } catch (final IOException e) {
+                            throw new StitchException.StitchRequestException(e);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Executes a network request against the app, leaving the response body undecoded so that
+     * callers can read it straight from the received bytes.
+     *
+     * @param method           The HTTP method to use.
+     * @param resource         The resource to target.
+     * @param body             The UTF-8 encoded JSON body to include in the request.
+     * @param refreshOnFailure Whether or not to refresh the access token if it expires.
+     * @param useRefreshToken  Whether or not to use the refresh token over the access token.
+     * @return A task containing the network response that can be resolved on completion
+     * of the network request.
+     */
+    private Task<HttpResponse> executeRawRequest(
+            final int method,
+            final String resource,
+            @Nullable final byte[] body,
+            final boolean refreshOnFailure,
+            final boolean useRefreshToken
+    ) {
+        return executeRawRequest(
+                method,
+                resource,
+                body,
+                Collections.<String, String>emptyMap(),
+                RequestOptions.DEFAULT,
+                refreshOnFailure,
+                useRefreshToken);
+    }
+
+    /**
+     * Executes a network request against the app with additional headers and options, leaving
+     * the response body undecoded. Requests that are safe to repeat are retried according to
+     * the applicable {@link RetryPolicy}.
+     *
+     * @param method           The HTTP method to use.
+     * @param resource         The resource to target.
+     * @param body             The UTF-8 encoded JSON body to include in the request.
+     * @param headers          Additional headers to include in the request.
+     * @param options          The options describing how the request may be executed.
+     * @param refreshOnFailure Whether or not to refresh the access token if it expires.
+     * @param useRefreshToken  Whether or not to use the refresh token over the access token.
+     * @return A task containing the network response that can be resolved on completion
+     * of the network request.
+     */
+    private Task<HttpResponse> executeRawRequest(
+            final int method,
+            final String resource,
+            @Nullable final byte[] body,
+            final Map<String, String> headers,
+            final RequestOptions options,
+            final boolean refreshOnFailure,
+            final boolean useRefreshToken
     ) {
         ensureAuthenticated();
-        final String url = getResourcePath(resource);
-        final String rawToken = useRefreshToken ? getRefreshToken() :
+
+        final Map<String, String> allHeaders;
+        if (options.getIdempotencyKey() == null) {
+            allHeaders = headers;
+        } else {
+            allHeaders = new HashMap<>(headers);
+            allHeaders.put(Headers.IDEMPOTENCY_KEY, options.getIdempotencyKey());
+        }
+
+        final boolean idempotent = method == Method.GET || method == Method.HEAD || options.isIdempotentRead();
+        final RetryPolicy retryPolicy;
+        if (idempotent || options.isRetryable()) {
+            retryPolicy = options.getRetryPolicy() != null ? options.getRetryPolicy() : _retryPolicy;
+        } else {
+            retryPolicy = RetryPolicy.NONE;
+        }
+
+        final RequestCall call = new RequestCall(
+                _transport,
+                _requestEvents,
+                method,
+                resource,
+                options.getOperation(),
+                options.getService(),
+                body,
+                allHeaders,
+                options.getPriority(),
+                retryPolicy,
+                idempotent,
+                refreshOnFailure,
+                useRefreshToken);
+        call.emit(RequestEvent.Type.ENQUEUED, 0, 0, null);
+        trackCall(call);
+        watchForCancellation(call, options);
+        executeAttempt(call, 0);
+        return call.getTask();
+    }
+
+    /**
+     * Keeps track of an authenticated call until it completes, so that it can be failed if the
+     * user logs out in the meantime.
+     *
+     * @param call The call to track.
+     */
+    private void trackCall(final RequestCall call) {
+        _liveCalls.add(call);
+        call.getTask().addOnCompleteListener(IMMEDIATE_EXECUTOR, new OnCompleteListener<HttpResponse>() {
+            @Override
+            public void onComplete(@NonNull final Task<HttpResponse> task) {
+                _liveCalls.remove(call);
+            }
+        });
+    }
+
+    /**
+     * Cancels a call when its cancellation token is cancelled or its deadline passes.
+     *
+     * @param call    The call to watch.
+     * @param options The options the call was made with.
+     */
+    private void watchForCancellation(final RequestCall call, final RequestOptions options) {
+        final CancellationToken token = options.getCancellationToken();
+        if (token != null) {
+            final Runnable onCancel = new Runnable() {
+                @Override
+                public void run() {
+                    call.cancel(new StitchException.StitchCancellationException(
+                            "Request was cancelled", false));
+                }
+            };
+            token.addListener(onCancel);
+            call.getTask().addOnCompleteListener(new OnCompleteListener<HttpResponse>() {
+                @Override
+                public void onComplete(@NonNull final Task<HttpResponse> task) {
+                    token.removeListener(onCancel);
+                }
+            });
+        }
+
+        final long deadlineMillis = options.getDeadlineMillis();
+        if (deadlineMillis > 0) {
+            final ScheduledFuture<?> deadline = SCHEDULER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    call.cancel(new StitchException.StitchCancellationException(
+                            String.format("Request deadline of %dms exceeded", deadlineMillis), true));
+                }
+            }, deadlineMillis, TimeUnit.MILLISECONDS);
+            call.getTask().addOnCompleteListener(new OnCompleteListener<HttpResponse>() {
+                @Override
+                public void onComplete(@NonNull final Task<HttpResponse> task) {
+                    deadline.cancel(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Executes one attempt of a call once the rate limiters allow it, scheduling another
+     * attempt if it fails in a way the retry policy allows to be retried.
+     *
+     * @param call    The call to make an attempt of.
+     * @param retries The number of retries already made.
+     */
+    private void executeAttempt(final RequestCall call, final int retries) {
+        if (call.isDone()) {
+            // Cancelled while a retry was pending
+            return;
+        }
+
+        // A call that is failed fast must not take a permit that delays everyone else
+        final CircuitBreaker circuitBreaker = getCircuitBreaker(call.resource);
+        if (circuitBreaker.isRejecting()) {
+            failCircuitOpen(call, circuitBreaker);
+            return;
+        }
+
+        final List<RateLimiter> rateLimiters = getRateLimiters(call);
+        final long throttleNanos = reservePermit(rateLimiters);
+        if (throttleNanos < 0) {
+            call.fail(new StitchException.StitchRateLimitedException(
+                    String.format("Rate limit for %s would delay %s too long; not sending it",
+                            call.resource, Method.getName(call.method)),
+                    getMaxWaitMillis(rateLimiters)));
+            return;
+        }
+
+        if (throttleNanos > 0) {
+            call.emit(RequestEvent.Type.THROTTLED, throttleNanos, 0, null);
+            SCHEDULER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (call.isDone()) {
+                        // Cancelled while waiting for a permit; let later requests have it
+                        for (final RateLimiter rateLimiter : rateLimiters) {
+                            rateLimiter.refund();
+                        }
+                        return;
+                    }
+                    executeThrottledAttempt(call, retries);
+                }
+            }, throttleNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        executeThrottledAttempt(call, retries);
+    }
+
+    /**
+     * @param call The call to make an attempt of.
+     * @return Every {@link RateLimiter} that applies to the call.
+     */
+    private List<RateLimiter> getRateLimiters(final RequestCall call) {
+        final List<RateLimiter> rateLimiters = new ArrayList<>(3);
+        final RateLimiter rateLimiter = _rateLimiter;
+        if (rateLimiter != null) {
+            rateLimiters.add(rateLimiter);
+        }
+        final RateLimiter routeRateLimiter = _routeRateLimiters.get(call.resource);
+        if (routeRateLimiter != null) {
+            rateLimiters.add(routeRateLimiter);
+        }
+        final RateLimiter serviceRateLimiter = call.service == null ? null : _serviceRateLimiters.get(call.service);
+        if (serviceRateLimiter != null) {
+            rateLimiters.add(serviceRateLimiter);
+        }
+        return rateLimiters;
+    }
+
+    /**
+     * Reserves a permit for an attempt of a call from every given {@link RateLimiter}. If any
+     * of them would make the attempt wait too long, no permit is kept from any of them.
+     *
+     * @param rateLimiters The rate limiters that apply to the call.
+     * @return How long to wait before the attempt may be made, in nanoseconds, or -1 if the
+     * attempt should not be made.
+     */
+    private static long reservePermit(final List<RateLimiter> rateLimiters) {
+        long waitNanos = 0;
+        for (int i = 0; i < rateLimiters.size(); i++) {
+            final long reservedNanos = rateLimiters.get(i).reserve();
+            if (reservedNanos < 0) {
+                for (int j = 0; j < i; j++) {
+                    rateLimiters.get(j).refund();
+                }
+                return -1;
+            }
+            waitNanos = Math.max(waitNanos, reservedNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * @param rateLimiters The rate limiters that apply to a call.
+     * @return The shortest maximum wait among them.
+     */
+    private static long getMaxWaitMillis(final List<RateLimiter> rateLimiters) {
+        long maxWaitMillis = Long.MAX_VALUE;
+        for (final RateLimiter rateLimiter : rateLimiters) {
+            maxWaitMillis = Math.min(maxWaitMillis, rateLimiter.getMaxWaitMillis());
+        }
+        return maxWaitMillis;
+    }
+
+    /**
+     * Fails a call without sending it because its route is failing.
+     *
+     * @param call           The call to fail.
+     * @param circuitBreaker The open circuit breaker guarding the route of the call.
+     */
+    private static void failCircuitOpen(final RequestCall call, final CircuitBreaker circuitBreaker) {
+        call.fail(new StitchException.StitchCircuitOpenException(
+                String.format("Requests to %s are failing; not sending %s",
+                        call.resource, Method.getName(call.method)),
+                circuitBreaker.getRetryAfterMillis()));
+    }
+
+    /**
+     * Executes one attempt of a call that has been let through by the rate limiters.
+     *
+     * @param call    The call to make an attempt of.
+     * @param retries The number of retries already made.
+     */
+    private void executeThrottledAttempt(final RequestCall call, final int retries) {
+        if (call.isDone()) {
+            // Cancelled while waiting for a permit
+            return;
+        }
+
+        final CircuitBreaker circuitBreaker = getCircuitBreaker(call.resource);
+        if (!circuitBreaker.tryAcquire()) {
+            failCircuitOpen(call, circuitBreaker);
+            return;
+        }
+
+        final Task<HttpResponse> attempt;
+        try {
+            attempt = executeRawRequestOnce(call, call.refreshOnFailure);
+        } catch (final StitchException e) {
+            // The user may have logged out while a retry was pending
+            call.fail(e);
+            return;
+        }
+
+        attempt.addOnCompleteListener(new OnCompleteListener<HttpResponse>() {
+            @Override
+            public void onComplete(@NonNull final Task<HttpResponse> task) {
+                circuitBreaker.onComplete(task.getException());
+                if (task.isSuccessful()) {
+                    call.complete(task.getResult());
+                    return;
+                }
+
+                if (call.isDone() || !call.shouldRetry(retries, task.getException())) {
+                    call.fail(task.getException());
+                    return;
+                }
+
+                final long backoffMillis = call.retryPolicy.getBackoffMillis(retries, _random);
+                Log.w(TAG, String.format("Retrying %s %s in %dms",
+                        Method.getName(call.method), call.resource, backoffMillis),
+                        task.getException());
+                call.emit(RequestEvent.Type.RETRY_SCHEDULED,
+                        TimeUnit.MILLISECONDS.toNanos(backoffMillis), 0, task.getException());
+                SCHEDULER.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        executeAttempt(call, retries + 1);
+                    }
+                }, backoffMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * @param resource The resource a request targets.
+     * @return The circuit breaker guarding the resource.
+     */
+    private CircuitBreaker getCircuitBreaker(final String resource) {
+        synchronized (_circuitBreakers) {
+            CircuitBreaker circuitBreaker = _circuitBreakers.get(resource);
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker();
+                _circuitBreakers.put(resource, circuitBreaker);
+            }
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Executes a single attempt of a call against the app, leaving the response body undecoded.
+     * The returned task never completes if the call is cancelled while the attempt is in flight.
+     *
+     * @param call             The call to make an attempt of.
+     * @param refreshOnFailure Whether or not to refresh the access token if it expires.
+     * @return A task containing the network response that can be resolved on completion
+     * of the network request.
+     */
+    private Task<HttpResponse> executeRawRequestOnce(final RequestCall call, final boolean refreshOnFailure) {
+        ensureAuthenticated();
+        final String url = getResourcePath(call.resource);
+        final String rawToken = call.useRefreshToken ? getRefreshToken() :
                 _auth.getAuthInfo().getAccessToken();
-        final TaskCompletionSource<String> future = new TaskCompletionSource<>();
-        if (!useRefreshToken) {
-            final DecodedJWT token = new DecodedJWT(rawToken);
+        final TaskCompletionSource<HttpResponse> future = new TaskCompletionSource<>();
+        if (!call.useRefreshToken) {
+            final DecodedJWT token = _auth.getAuthInfo().getDecodedAccessToken();
             if (token.isExpired()) {
-                handleInvalidSession(method, resource, body, future);
+                handleInvalidSession(call, rawToken, future);
                 return future.getTask();
             }
         }
 
-        final AuthenticatedJsonStringRequest request = new AuthenticatedJsonStringRequest(
-                method,
-                url,
-                body,
-                Collections.singletonMap(
-                        Headers.AUTHORIZATION,
-                        GetAuthorizationBearer(rawToken)),
-                new Response.Listener<String>() {
+        call.send(
+                newRequest(call.method, url)
+                        .withHeaders(call.headers)
+                        .withPriority(call.priority)
+                        .withHeader(Headers.AUTHORIZATION, GetAuthorizationBearer(rawToken))
+                        .withBody(call.body)
+                        .build(),
+                new Transport.Listener() {
                     @Override
-                    public void onResponse(final String response) {
+                    public void onResponse(final HttpResponse response) {
                         future.setResult(response);
                     }
-                },
-                new Response.ErrorListener() {
+
                     @Override
-                    public void onErrorResponse(final VolleyError error) {
-                        final StitchException.StitchRequestException e = parseRequestError(error);
+                    public void onError(final StitchException.StitchRequestException e) {
                         if (e instanceof StitchException.StitchServiceException) {
                             if (((StitchException.StitchServiceException) e).getErrorCode() == ErrorCode.INVALID_SESSION) {
                                 if (!refreshOnFailure) {
+                                    // Fail the call with the real reason before the logout
+                                    // cancels it along with every other call
+                                    call.fail(e);
                                     clearAuth();
                                     future.setException(e);
                                     return;
                                 }
-                                handleInvalidSession(method, resource, body, future);
+                                handleInvalidSession(call, rawToken, future);
                                 return;
                             }
                         }
                         future.setException(e);
                     }
                 });
-        request.setTag(this);
-        _queue.add(request);
 
         return future.getTask();
     }
 
+    /**
+     * Executes a GET request through the response cache. A fresh cached response is returned
+     * without a round trip; otherwise the request is made conditional on the cached response
+     * having changed so that an unchanged response costs neither a body transfer nor decoding.
+     *
+     * @param resource      The resource to target.
+     * @param authenticated Whether or not the request must carry the access token.
+     * @return A task containing the cache entry for the response.
+     */
+    private Task<ResponseCache.Entry> executeCachedGet(final String resource, final boolean authenticated) {
+        final String url = getResourcePath(resource);
+
+        // The cache reads from disk, so look it up off the main thread
+        return Tasks.call(_decodeExecutor, new Callable<ResponseCache.Entry>() {
+            @Override
+            public ResponseCache.Entry call() {
+                return _responseCache.get(url);
+            }
+        }).continueWithTask(new Continuation<ResponseCache.Entry, Task<ResponseCache.Entry>>() {
+            @Override
+            public Task<ResponseCache.Entry> then(@NonNull final Task<ResponseCache.Entry> task) {
+                final ResponseCache.Entry cached = task.isSuccessful() ? task.getResult() : null;
+                if (cached != null && cached.isFresh()) {
+                    emitEvent(RequestEvent.Type.CACHE_HIT, Method.GET, resource, null, 0, 0);
+                    return Tasks.forResult(cached);
+                }
+
+                final Map<String, String> headers = cached == null ?
+                        Collections.<String, String>emptyMap() : cached.getConditionalHeaders();
+                final Task<HttpResponse> response;
+                if (authenticated) {
+                    response = executeRawRequest(Method.GET, resource, null, headers, RequestOptions.DEFAULT, true, false);
+                } else {
+                    response = executeUnauthenticatedRequest(
+                            resource, newRequest(Method.GET, url).withHeaders(headers).build());
+                }
+
+                return response.continueWith(_decodeExecutor, new Continuation<HttpResponse, ResponseCache.Entry>() {
+                    @Override
+                    public ResponseCache.Entry then(@NonNull final Task<HttpResponse> task) throws Exception {
+                        if (!task.isSuccessful()) {
+                            throw task.getException();
+                        }
+
+                        final HttpResponse httpResponse = task.getResult();
+                        if (httpResponse.getStatusCode() != HTTP_NOT_MODIFIED) {
+                            emitEvent(RequestEvent.Type.CACHE_MISS, Method.GET, resource, null, 0, 0);
+                            return _responseCache.put(url, httpResponse);
+                        }
+                        if (cached == null) {
+                            throw new StitchException.StitchRequestException(
+                                    "Received 304 Not Modified for an unconditional request");
+                        }
+                        emitEvent(RequestEvent.Type.CACHE_HIT, Method.GET, resource, null, 0, 0);
+                        return _responseCache.revalidate(cached, httpResponse);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Executes a request that does not require authentication.
+     *
+     * @param resource The resource the request targets, used to label its events.
+     * @param request  The request to execute.
+     * @return A task containing the network response.
+     */
+    private Task<HttpResponse> executeUnauthenticatedRequest(final String resource, final HttpRequest request) {
+        final TaskCompletionSource<HttpResponse> future = new TaskCompletionSource<>();
+        executeUnauthenticatedRequest(resource, request, new Transport.Listener() {
+            @Override
+            public void onResponse(final HttpResponse response) {
+                future.setResult(response);
+            }
+
+            @Override
+            public void onError(final StitchException.StitchRequestException error) {
+                future.setException(error);
+            }
+        });
+        return future.getTask();
+    }
+
+    /**
+     * Executes a request that does not require authentication, such as a login, as a single
+     * attempt that reports its lifecycle as {@link RequestEvent}s like any other request.
+     *
+     * @param resource The resource the request targets, used to label its events.
+     * @param request  The request to execute.
+     * @param listener The listener to notify upon completion of the request.
+     */
+    private void executeUnauthenticatedRequest(
+            final String resource,
+            final HttpRequest request,
+            final Transport.Listener listener
+    ) {
+        final RequestCall call = new RequestCall(
+                _transport,
+                _requestEvents,
+                request.getMethod(),
+                resource,
+                null,
+                null,
+                request.getBody(),
+                request.getHeaders(),
+                request.getPriority(),
+                RetryPolicy.NONE,
+                false,
+                false,
+                false);
+        call.emit(RequestEvent.Type.ENQUEUED, 0, 0, null);
+        call.send(request, new Transport.Listener() {
+            @Override
+            public void onResponse(final HttpResponse response) {
+                call.complete(response);
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onError(final StitchException.StitchRequestException error) {
+                call.fail(error);
+                listener.onError(error);
+            }
+        });
+    }
+
     // Push
     /**
      * @return The manager for {@link PushClient}s.
@@ -795,13 +1888,31 @@ public class StitchClient {
      * of the request.
      */
     public Task<AvailablePushProviders> getPushProviders() {
+        return _inFlightRequests.share(
+                getInFlightKey(Method.GET, routes.PUSH, null),
+                new InFlightRequests.Factory<AvailablePushProviders>() {
+                    @Override
+                    public Task<AvailablePushProviders> start() {
+                        return executeCachedGet(routes.PUSH, true).continueWith(_decodeExecutor, new Continuation<ResponseCache.Entry, AvailablePushProviders>() {
+                            @Override
+                            public AvailablePushProviders then(@NonNull final Task<ResponseCache.Entry> task) throws Exception {
+                                if (!task.isSuccessful()) {
+                                    throw task.getException();
+                                }
 
-        return executeRequest(Request.Method.GET, routes.PUSH).continueWith(new Continuation<String, AvailablePushProviders>() {
-            @Override
-            public AvailablePushProviders then(@NonNull final Task<String> task) throws Exception {
-                return AvailablePushProviders.fromQuery(task.getResult());
-            }
-        });
+                                final ResponseCache.Entry entry = task.getResult();
+                                if (entry.getDecoded() instanceof AvailablePushProviders) {
+                                    return (AvailablePushProviders) entry.getDecoded();
+                                }
+
+                                final AvailablePushProviders providers =
+                                        AvailablePushProviders.fromQuery(entry.getResponse().getBodyAsString());
+                                entry.setDecoded(providers);
+                                return providers;
+                            }
+                        });
+                    }
+                });
     }
 
     // Internal Public Methods
@@ -813,6 +1924,26 @@ public class StitchClient {
         return _properties;
     }
 
+    // Internal Methods
+
+    /**
+     * @return The table of in-flight idempotent requests made through this client.
+     */
+    InFlightRequests getInFlightRequests() {
+        return _inFlightRequests;
+    }
+
+    /**
+     * @param method   The HTTP method of the request.
+     * @param resource The resource the request targets.
+     * @param body     The body of the request, if any.
+     * @return A key identifying the request in the in-flight table.
+     */
+    static Object getInFlightKey(final int method, final String resource, @Nullable final byte[] body) {
+        // Wrapping compares the encoded body by content without decoding it back into a String
+        return Arrays.asList(method, resource, body == null ? null : ByteBuffer.wrap(body));
+    }
+
     // Private Methods
 
     // AuthInfo
@@ -865,37 +1996,68 @@ public class StitchClient {
         _auth = null;
         _preferences.edit().remove(PREF_AUTH_JWT_NAME).apply();
         _preferences.edit().remove(PREF_AUTH_REFRESH_TOKEN_NAME).apply();
-        _queue.cancelAll(this);
+        // Fail every call of the logged out user, including a pending refresh, so that nothing
+        // waiting on their tasks hangs. Unauthenticated requests are left to complete.
+        final List<RequestCall> liveCalls = new ArrayList<>(_liveCalls);
+        _liveCalls.removeAll(liveCalls);
+        for (final RequestCall call : liveCalls) {
+            call.cancel(new StitchException.StitchCancellationException(
+                    "Request was cancelled because the user logged out", false));
+        }
+        _inFlightRequests.clear();
+        // Cached responses to authenticated routes belong to this user. They are forgotten right
+        // away so that the next login cannot see them, while their files, which this thread may
+        // not touch, are deleted in the background.
+        _responseCache.clear();
+        _decodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                _responseCache.deleteClearedFiles();
+            }
+        });
+        _tokenRefresher.stop();
+        synchronized (_refreshLock) {
+            // The cancelled refresh fails, so stop handing it out to the next user
+            _pendingRefresh = null;
+        }
         onLogout();
     }
 
     /**
      * Handles an invalid session error from Stitch by refreshing the access token and
-     * retrying the original request.
+     * retrying the original request. Concurrent callers share a single refresh and are all
+     * replayed as soon as it completes. If the access token was already replaced since the
+     * original request was sent, the request is replayed without refreshing again.
      *
-     * @param method   The original HTTP method.
-     * @param resource The original resource.
-     * @param body     The original body.
-     * @param future   The task to resolve upon completion of this handler.
+     * @param call        The call the original request was an attempt of.
+     * @param staleToken  The access token the original request was sent with.
+     * @param future      The task to resolve upon completion of this handler.
      */
     private void handleInvalidSession(
-            final int method,
-            final String resource,
-            final String body,
-            final TaskCompletionSource<String> future
+            final RequestCall call,
+            final String staleToken,
+            final TaskCompletionSource<HttpResponse> future
     ) {
-        refreshAccessToken().addOnCompleteListener(new OnCompleteListener<Void>() {
+        final Task<Void> refresh;
+        if (_auth != null && !staleToken.equals(_auth.getAuthInfo().getAccessToken())) {
+            refresh = Tasks.forResult(null);
+        } else {
+            refresh = refreshAccessToken();
+        }
+
+        refresh.addOnCompleteListener(new OnCompleteListener<Void>() {
             @Override
             public void onComplete(@NonNull final Task<Void> task) {
                 if (!task.isSuccessful()) {
                     future.setException(task.getException());
                     return;
                 }
+                call.emit(RequestEvent.Type.TOKEN_REFRESHED, call.lap(), 0, null);
 
                 // Retry one more time
-                executeRequest(method, resource, body, false, false).addOnCompleteListener(new OnCompleteListener<String>() {
+                executeRawRequestOnce(call, false).addOnCompleteListener(new OnCompleteListener<HttpResponse>() {
                     @Override
-                    public void onComplete(@NonNull final Task<String> task) {
+                    public void onComplete(@NonNull final Task<HttpResponse> task) {
                         if (task.isSuccessful()) {
                             future.setResult(task.getResult());
                             return;
@@ -909,43 +2071,76 @@ public class StitchClient {
     }
 
     /**
-     * Refreshes the current access token using the current refresh token.
+     * Refreshes the current access token using the current refresh token. Only one refresh is
+     * ever in flight; callers arriving while one is pending are handed the same task.
      *
      * @return A task that can resolved upon completion of refreshing the access token.
      */
-    private Task<Void> refreshAccessToken() {
-        return executeRequest(Request.Method.POST, routes.AUTH_SESSION, null, false, true)
-                .continueWith(new Continuation<String, Void>() {
-                    @Override
-                    public Void then(@NonNull Task<String> task) throws Exception {
-                        if (!task.isSuccessful()) {
-                            throw task.getException();
-                        }
+    Task<Void> refreshAccessToken() {
+        synchronized (_refreshLock) {
+            if (_pendingRefresh != null) {
+                return _pendingRefresh;
+            }
 
-                        final String newAccessToken;
-                        try {
-                            final JSONObject response = new JSONObject(task.getResult());
-                            newAccessToken = response.getString(AuthFields.ACCESS_TOKEN);
-                        } catch (final JSONException e) {
-                            Log.e(TAG, "Error parsing access token response", e);
-                            throw new StitchException(e);
+            final Task<Void> refresh = executeRequest(Method.POST, routes.AUTH_SESSION, null, REFRESH_OPTIONS, false, true)
+                    .continueWith(_decodeExecutor, new Continuation<String, String>() {
+                        @Override
+                        public String then(@NonNull Task<String> task) throws Exception {
+                            if (!task.isSuccessful()) {
+                                throw task.getException();
+                            }
+
+                            try {
+                                final JSONObject response = new JSONObject(task.getResult());
+                                return response.getString(AuthFields.ACCESS_TOKEN);
+                            } catch (final JSONException e) {
+                                Log.e(TAG, "Error parsing access token response", e);
+                                throw new StitchException(e);
+                            }
                         }
+                    })
+                    .continueWith(new Continuation<String, Void>() {
+                        @Override
+                        public Void then(@NonNull Task<String> task) throws Exception {
+                            if (!task.isSuccessful()) {
+                                throw task.getException();
+                            }
 
-                        _auth = new Auth(StitchClient.this,
-                                _auth.getAuthInfo().withNewAccessToken(newAccessToken));
+                            final String newAccessToken = task.getResult();
+                            if (_auth == null) {
+                                throw new StitchException.StitchAuthException("Logged out while refreshing access token");
+                            }
 
-                        final String authJson;
-                        try {
-                            authJson = _objMapper.writeValueAsString(_auth.getAuthInfo());
-                        } catch (final IOException e) {
-                            Log.e(TAG, "Error parsing auth response", e);
-                            throw new StitchException(e);
-                        }
+                            _auth = new Auth(StitchClient.this,
+                                    _auth.getAuthInfo().withNewAccessToken(newAccessToken));
+
+                            final String authJson;
+                            try {
+                                authJson = _objMapper.writeValueAsString(_auth.getAuthInfo());
+                            } catch (final IOException e) {
+                                Log.e(TAG, "Error parsing auth response", e);
+                                throw new StitchException(e);
+                            }
 
-                        _preferences.edit().putString(PREF_AUTH_JWT_NAME, authJson).apply();
-                        return null;
+                            _preferences.edit().putString(PREF_AUTH_JWT_NAME, authJson).apply();
+                            _tokenRefresher.scheduleFor(_auth.getAuthInfo());
+                            return null;
+                        }
+                    });
+
+            _pendingRefresh = refresh;
+            refresh.addOnCompleteListener(new OnCompleteListener<Void>() {
+                @Override
+                public void onComplete(@NonNull final Task<Void> task) {
+                    synchronized (_refreshLock) {
+                        if (_pendingRefresh == refresh) {
+                            _pendingRefresh = null;
+                        }
                     }
-                });
+                }
+            });
+            return refresh;
+        }
     }
 
     /**
@@ -0,0 +1,183 @@
+package com.mongodb.stitch.android;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.mongodb.stitch.android.auth.AuthProvider;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * SyncStitchClient is a blocking facade over a {@link StitchClient} for code that would rather
+ * make plain calls from a worker thread than chain {@link Task} continuations. Requests are still
+ * carried out by the client's {@link com.mongodb.stitch.android.http.Transport}, but each call
+ * blocks its calling thread until the request completes. The number of calls that can be waited
+ * on at once is therefore bounded by the number of threads the app dedicates to waiting; code
+ * that needs many concurrent requests should chain the client's {@link Task}s instead.
+ *
+ * A call waits until the deadline of its request (see {@link RequestOptions.Builder#withDeadline})
+ * or, if it has none, for {@link #DEFAULT_TIMEOUT_MILLIS}, and then fails with a
+ * {@link StitchException.StitchCancellationException}. A request without a deadline is left to
+ * complete in the background when its call times out.
+ *
+ * Like the {@link StitchClient} it wraps, this class needs an Android
+ * {@link android.content.Context} and only runs on a device. Calls throw an
+ * {@link IllegalStateException} when made from the main thread.
+ *
+ * <pre>{@code
+ * final SyncStitchClient client = new SyncStitchClient(stitchClient);
+ * client.logInWithProvider(new AnonymousAuthProvider());
+ * final Object result = client.executeFunction("sum", 1, 2);
+ * }</pre>
+ */
+public class SyncStitchClient {
+
+    /**
+     * How long a call whose request has no deadline is waited for.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    // A request that runs into its deadline fails with that rather than timing out the wait
+    private static final long DEADLINE_GRACE_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final StitchClient _stitchClient;
+
+    /**
+     * @param stitchClient The client to make calls with.
+     */
+    public SyncStitchClient(final StitchClient stitchClient) {
+        _stitchClient = stitchClient;
+    }
+
+    /**
+     * @return The client calls are made with.
+     */
+    public StitchClient getStitchClient() {
+        return _stitchClient;
+    }
+
+    /**
+     * Logs the current user in using a specific auth provider.
+     *
+     * @param authProvider The provider that will handle the login.
+     * @return The user ID of the logged in user.
+     */
+    public String logInWithProvider(final AuthProvider authProvider) {
+        return await(_stitchClient.logInWithProvider(authProvider));
+    }
+
+    /**
+     * Logs out the current user.
+     */
+    public void logout() {
+        await(_stitchClient.logout());
+    }
+
+    /**
+     * Execute a named function
+     * @param name name of the function
+     * @param args extended JSON arguments associated with the function
+     * @return return value of associated function
+     */
+    public Object executeFunction(final String name, final Object... args) {
+        return await(_stitchClient.executeFunction(name, args));
+    }
+
+    /**
+     * Execute a named function
+     * @param name name of the function
+     * @param options options describing how the call may be executed
+     * @param args extended JSON arguments associated with the function
+     * @return return value of associated function
+     */
+    public Object executeFunction(final String name, final RequestOptions options, final Object... args) {
+        return await(_stitchClient.executeFunction(name, options, args), getTimeoutMillis(options.getDeadlineMillis()));
+    }
+
+    /**
+     * Execute a named function associated with a service
+     * @param name name of the function
+     * @param serviceName name of your service
+     * @param args extended JSON arguments associated with the function
+     * @return return value of the associated function
+     */
+    public Object executeServiceFunction(final String name, final String serviceName, final Object... args) {
+        return await(_stitchClient.executeServiceFunction(name, serviceName, args));
+    }
+
+    /**
+     * Execute a named function associated with a service
+     * @param name name of the function
+     * @param serviceName name of your service
+     * @param options options describing how the call may be executed
+     * @param args extended JSON arguments associated with the function
+     * @return return value of the associated function
+     */
+    public Object executeServiceFunction(
+            final String name,
+            final String serviceName,
+            final RequestOptions options,
+            final Object... args
+    ) {
+        return await(
+                _stitchClient.executeServiceFunction(name, serviceName, options, args),
+                getTimeoutMillis(options.getDeadlineMillis()));
+    }
+
+    /**
+     * Blocks the calling thread until a task completes, for at most
+     * {@link #DEFAULT_TIMEOUT_MILLIS}.
+     *
+     * @param task The task to wait for.
+     * @param <T>  The type of the task's result.
+     * @return The result of the task.
+     * @throws StitchException The failure of the task, or a
+     *                         {@link StitchException.StitchCancellationException} if the wait
+     *                         timed out or the calling thread was interrupted.
+     * @throws IllegalStateException If called from the main thread.
+     */
+    public static <T> T await(final Task<T> task) {
+        return await(task, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Blocks the calling thread until a task completes or the timeout passes. Giving up on the
+     * task does not cancel the request behind it.
+     *
+     * @param task          The task to wait for.
+     * @param timeoutMillis How long to wait for the task.
+     * @param <T>           The type of the task's result.
+     * @return The result of the task.
+     * @throws StitchException The failure of the task, or a
+     *                         {@link StitchException.StitchCancellationException} if the wait
+     *                         timed out or the calling thread was interrupted.
+     * @throws IllegalStateException If called from the main thread.
+     */
+    public static <T> T await(final Task<T> task, final long timeoutMillis) {
+        try {
+            return Tasks.await(task, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof StitchException) {
+                throw (StitchException) cause;
+            }
+            throw new StitchException.StitchRequestException(cause);
+        } catch (final TimeoutException e) {
+            throw new StitchException.StitchCancellationException(
+                    String.format("Timed out after %dms waiting for a Stitch request", timeoutMillis), true);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StitchException.StitchCancellationException(
+                    "Interrupted while waiting for a Stitch request", false);
+        }
+    }
+
+    /**
+     * @param deadlineMillis The deadline of a request, or 0 if it has none.
+     * @return How long to wait for the request.
+     */
+    public static long getTimeoutMillis(final long deadlineMillis) {
+        return deadlineMillis > 0 ? deadlineMillis + DEADLINE_GRACE_MILLIS : DEFAULT_TIMEOUT_MILLIS;
+    }
+}
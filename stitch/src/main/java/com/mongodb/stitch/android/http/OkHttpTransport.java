@@ -0,0 +1,205 @@
+package com.mongodb.stitch.android.http;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.mongodb.stitch.android.StitchException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.mongodb.stitch.android.StitchError.parseRequestError;
+
+/**
+ * OkHttpTransport is a {@link Transport} backed by OkHttp. Connections are pooled and, when the
+ * server supports it, multiplexed over HTTP/2 so that many concurrent requests share a single
+ * connection. Results are delivered on the main thread, matching {@link VolleyTransport}.
+ *
+ * Clients should share a single transport, or at least a single {@link OkHttpClient}, so that
+ * they share its connection pool and dispatcher. The dispatcher can be given an executor of
+ * the app's choosing to control the threads requests run on.
+ *
+ * OkHttp is not a transitive dependency of this SDK; applications using this transport must
+ * depend on {@code com.squareup.okhttp3:okhttp} themselves.
+ */
+public class OkHttpTransport implements Transport {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final OkHttpClient _client;
+    private final Executor _deliveryExecutor;
+
+    public OkHttpTransport() {
+        this(new OkHttpClient());
+    }
+
+    /**
+     * @param client The client to execute requests with.
+     */
+    public OkHttpTransport(final OkHttpClient client) {
+        this(client, new Executor() {
+            private final Handler _mainHandler = new Handler(Looper.getMainLooper());
+
+            @Override
+            public void execute(final Runnable command) {
+                _mainHandler.post(command);
+            }
+        });
+    }
+
+    /**
+     * @param client           The client to execute requests with.
+     * @param deliveryExecutor The executor to notify listeners on.
+     */
+    public OkHttpTransport(final OkHttpClient client, final Executor deliveryExecutor) {
+        _client = client;
+        _deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * @return The client requests are executed with.
+     */
+    public OkHttpClient getClient() {
+        return _client;
+    }
+
+    @Override
+    public void execute(final HttpRequest request, final Listener listener) {
+        _client.newCall(toOkHttpRequest(request)).enqueue(new Callback() {
+            @Override
+            public void onFailure(final Call call, final IOException e) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                deliverError(listener, new StitchException.StitchRequestException(e));
+            }
+
+            @Override
+            public void onResponse(final Call call, final Response response) {
+                final HttpResponse httpResponse;
+                try {
+                    httpResponse = fromOkHttpResponse(response);
+                } catch (final IOException e) {
+                    onFailure(call, e);
+                    return;
+                } finally {
+                    response.close();
+                }
+
+                if (call.isCanceled()) {
+                    return;
+                }
+
+                if (!httpResponse.isSuccessful()) {
+                    StitchException.StitchRequestException error;
+                    try {
+                        error = parseRequestError(httpResponse);
+                    } catch (final StitchException.StitchRequestException e) {
+                        error = e;
+                    }
+                    deliverError(listener, error);
+                    return;
+                }
+
+                _deliveryExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onResponse(httpResponse);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public void cancelAll(final Object tag) {
+        for (final Call call : getCalls()) {
+            final Object request = call.request().tag();
+            if (request instanceof HttpRequest && tag.equals(((HttpRequest) request).getTag())) {
+                call.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void cancel(final HttpRequest request) {
+        for (final Call call : getCalls()) {
+            if (call.request().tag() == request) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return The queued and running calls of the client. Calls made by this transport are
+     * tagged with the {@link HttpRequest} they carry.
+     */
+    private List<Call> getCalls() {
+        final List<Call> calls = new ArrayList<>(_client.dispatcher().queuedCalls());
+        calls.addAll(_client.dispatcher().runningCalls());
+        return calls;
+    }
+
+    private void deliverError(final Listener listener, final StitchException.StitchRequestException error) {
+        _deliveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onError(error);
+            }
+        });
+    }
+
+    private static Request toOkHttpRequest(final HttpRequest request) {
+        final Request.Builder builder = new Request.Builder()
+                .url(request.getUrl())
+                .tag(request);
+
+        for (final Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        final RequestBody body;
+        switch (request.getMethod()) {
+            case Method.GET:
+            case Method.HEAD:
+                body = null;
+                break;
+            case Method.DELETE:
+                body = request.getBody() == null ? null : RequestBody.create(
+                        MediaType.parse(request.getContentType()), request.getBody());
+                break;
+            default:
+                body = RequestBody.create(
+                        MediaType.parse(request.getContentType()),
+                        request.getBody() == null ? EMPTY_BODY : request.getBody());
+        }
+
+        return builder.method(Method.getName(request.getMethod()), body).build();
+    }
+
+    private static HttpResponse fromOkHttpResponse(final Response response) throws IOException {
+        final Map<String, String> headers = new HashMap<>();
+        for (final String name : response.headers().names()) {
+            headers.put(name, response.header(name));
+        }
+
+        final ResponseBody body = response.body();
+        return new HttpResponse(
+                response.code(),
+                headers,
+                body == null ? null : body.bytes());
+    }
+}
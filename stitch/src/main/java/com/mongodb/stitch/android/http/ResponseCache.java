@@ -0,0 +1,337 @@
+package com.mongodb.stitch.android.http;
+
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseCache is an on-disk cache of responses to GET requests that honors the ETag,
+ * Last-Modified and Cache-Control headers sent by Stitch. Fresh entries are served without a
+ * round trip and stale entries are revalidated with a conditional request, in which case a
+ * 304 Not Modified lets the cached body be reused.
+ *
+ * All methods but {@link #clear()} may touch the disk and should not be called on the main
+ * thread.
+ */
+public class ResponseCache {
+    private static final String TAG = "Stitch.ResponseCache";
+    private static final int FORMAT_VERSION = 1;
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age=";
+    private static final String[] STORED_HEADERS = {
+            Headers.CONTENT_TYPE, Headers.ETAG, Headers.LAST_MODIFIED};
+
+    private final File _directory;
+    private final Map<String, Entry> _entries;
+    private boolean _clearPending;
+
+    /**
+     * @param directory The directory to store entries in. It is created if it does not exist.
+     */
+    public ResponseCache(final File directory) {
+        _directory = directory;
+        _entries = new HashMap<>();
+    }
+
+    /**
+     * @param url The URL of the request.
+     * @return The cached entry for the URL, or null if there is none.
+     */
+    @Nullable
+    public synchronized Entry get(final String url) {
+        Entry entry = _entries.get(url);
+        if (entry == null && !_clearPending) {
+            entry = read(url);
+            if (entry != null) {
+                _entries.put(url, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a full response to a request. Responses that forbid storage or carry no validators
+     * or freshness information are returned as an entry but not kept.
+     *
+     * @param url      The URL of the request.
+     * @param response The response to store.
+     * @return An entry for the response.
+     */
+    public synchronized Entry put(final String url, final HttpResponse response) {
+        final Map<String, String> headers = new HashMap<>();
+        for (final String name : STORED_HEADERS) {
+            final String value = response.getHeaders().get(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+
+        final String cacheControl = response.getHeaders().get(Headers.CACHE_CONTROL);
+        final Entry entry = new Entry(url, getExpiresAtMillis(cacheControl), headers, response.getBody());
+        if (isNoStore(cacheControl) || (!entry.hasValidators() && !entry.isFresh())) {
+            remove(url);
+            return entry;
+        }
+
+        _entries.put(url, entry);
+        write(entry);
+        return entry;
+    }
+
+    /**
+     * Records that a cached entry was revalidated by a 304 Not Modified response, extending its
+     * freshness by what the response allows.
+     *
+     * @param entry       The revalidated entry.
+     * @param notModified The 304 Not Modified response.
+     * @return The revalidated entry.
+     */
+    public synchronized Entry revalidate(final Entry entry, final HttpResponse notModified) {
+        final String cacheControl = notModified.getHeaders().get(Headers.CACHE_CONTROL);
+        entry._expiresAtMillis = getExpiresAtMillis(cacheControl);
+        if (_entries.get(entry._url) == entry) {
+            write(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes the entry for a URL.
+     *
+     * @param url The URL of the request.
+     */
+    public synchronized void remove(final String url) {
+        _entries.remove(url);
+        final File file = getFile(url);
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Failed to delete cache entry " + file);
+        }
+    }
+
+    /**
+     * Removes all entries without touching the disk, so it may be called on the main thread.
+     * Their files are no longer read and are deleted by {@link #deleteClearedFiles()}.
+     */
+    public synchronized void clear() {
+        _entries.clear();
+        _clearPending = true;
+    }
+
+    /**
+     * Deletes the files of the entries removed by {@link #clear()}, keeping those of entries
+     * stored since.
+     */
+    public synchronized void deleteClearedFiles() {
+        if (!_clearPending) {
+            return;
+        }
+
+        final Set<File> stored = new HashSet<>();
+        for (final String url : _entries.keySet()) {
+            stored.add(getFile(url));
+        }
+        final File[] files = _directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (!stored.contains(file) && !file.delete()) {
+                    Log.w(TAG, "Failed to delete cache entry " + file);
+                }
+            }
+        }
+        _clearPending = false;
+    }
+
+    @Nullable
+    private Entry read(final String url) {
+        final File file = getFile(url);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !url.equals(in.readUTF())) {
+                return null;
+            }
+
+            final long expiresAtMillis = in.readLong();
+            final int headerCount = in.readInt();
+            final Map<String, String> headers = new HashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+
+            final byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new Entry(url, expiresAtMillis, headers, body);
+        } catch (final FileNotFoundException e) {
+            return null;
+        } catch (final IOException e) {
+            Log.w(TAG, "Discarding unreadable cache entry " + file, e);
+            if (!file.delete()) {
+                Log.w(TAG, "Failed to delete cache entry " + file);
+            }
+            return null;
+        }
+    }
+
+    private void write(final Entry entry) {
+        if (!_directory.isDirectory() && !_directory.mkdirs()) {
+            Log.w(TAG, "Failed to create cache directory " + _directory);
+            return;
+        }
+
+        final File file = getFile(entry._url);
+        final File tmpFile = new File(file.getPath() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(entry._url);
+            out.writeLong(entry._expiresAtMillis);
+            out.writeInt(entry._headers.size());
+            for (final Map.Entry<String, String> header : entry._headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(entry._body.length);
+            out.write(entry._body);
+        } catch (final IOException e) {
+            Log.w(TAG, "Failed to write cache entry " + file, e);
+            return;
+        }
+
+        if (!tmpFile.renameTo(file)) {
+            Log.w(TAG, "Failed to commit cache entry " + file);
+        }
+    }
+
+    private File getFile(final String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            final StringBuilder name = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return new File(_directory, name.toString());
+        } catch (final NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            // Both are guaranteed to be available on Android
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isNoStore(@Nullable final String cacheControl) {
+        return cacheControl != null && cacheControl.toLowerCase().contains(NO_STORE);
+    }
+
+    private static long getExpiresAtMillis(@Nullable final String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+
+        long maxAgeSeconds = 0;
+        for (final String directive : cacheControl.split(",")) {
+            final String trimmed = directive.trim().toLowerCase();
+            if (trimmed.equals(NO_CACHE)) {
+                return 0;
+            }
+            if (trimmed.startsWith(MAX_AGE)) {
+                try {
+                    maxAgeSeconds = Long.parseLong(trimmed.substring(MAX_AGE.length()));
+                } catch (final NumberFormatException ignored) {
+                }
+            }
+        }
+        return maxAgeSeconds <= 0 ? 0 : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+    }
+
+    /**
+     * Entry is a cached response along with what is needed to revalidate it. An entry can also
+     * hold the value decoded from its body so that a revalidated response need not be decoded
+     * again.
+     */
+    public static class Entry {
+        private final String _url;
+        private final Map<String, String> _headers;
+        private final byte[] _body;
+        private volatile long _expiresAtMillis;
+        private volatile Object _decoded;
+
+        private Entry(
+                final String url,
+                final long expiresAtMillis,
+                final Map<String, String> headers,
+                final byte[] body
+        ) {
+            _url = url;
+            _expiresAtMillis = expiresAtMillis;
+            _headers = headers;
+            _body = body;
+        }
+
+        /**
+         * @return Whether or not the entry can be used without revalidating it.
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() < _expiresAtMillis;
+        }
+
+        /**
+         * @return Whether or not the entry can be revalidated with a conditional request.
+         */
+        public boolean hasValidators() {
+            return _headers.containsKey(Headers.ETAG) || _headers.containsKey(Headers.LAST_MODIFIED);
+        }
+
+        /**
+         * @return The headers to send along with a request to revalidate this entry.
+         */
+        public Map<String, String> getConditionalHeaders() {
+            final Map<String, String> headers = new HashMap<>();
+            if (_headers.containsKey(Headers.ETAG)) {
+                headers.put(Headers.IF_NONE_MATCH, _headers.get(Headers.ETAG));
+            }
+            if (_headers.containsKey(Headers.LAST_MODIFIED)) {
+                headers.put(Headers.IF_MODIFIED_SINCE, _headers.get(Headers.LAST_MODIFIED));
+            }
+            return headers;
+        }
+
+        /**
+         * @return The cached response.
+         */
+        public HttpResponse getResponse() {
+            return new HttpResponse(200, _headers, _body);
+        }
+
+        /**
+         * @return The value previously decoded from the body of this entry, if any.
+         */
+        @Nullable
+        public Object getDecoded() {
+            return _decoded;
+        }
+
+        /**
+         * @param decoded The value decoded from the body of this entry.
+         */
+        public void setDecoded(final Object decoded) {
+            _decoded = decoded;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.mongodb.stitch.android.http;
 
+import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.NetworkResponse;
 import com.android.volley.ParseError;
+import com.android.volley.Request;
 import com.android.volley.Response;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.JsonRequest;
@@ -89,4 +91,83 @@ public class Volley {
             }
         }
     }
+
+    public static class TransportRequest extends Request<HttpResponse> {
+
+        private final HttpRequest _request;
+        private final Response.Listener<HttpResponse> _listener;
+
+        /**
+         * Creates a new request that carries an {@link HttpRequest} and returns the raw response.
+         *
+         * @param request       The transport independent request to carry.
+         * @param listener      Listener to receive the response
+         * @param errorListener Error listener, or null to ignore errors.
+         */
+        public TransportRequest(
+                final HttpRequest request,
+                final Response.Listener<HttpResponse> listener,
+                final Response.ErrorListener errorListener
+        ) {
+            super(request.getMethod(), request.getUrl(), errorListener);
+            _request = request;
+            _listener = listener;
+            setTag(request.getTag());
+
+            // Caching is handled by ResponseCache so that it works the same for every transport
+            setShouldCache(false);
+
+            // Retries are handled by StitchClient according to whether the request is idempotent
+            setRetryPolicy(new DefaultRetryPolicy(DefaultRetryPolicy.DEFAULT_TIMEOUT_MS, 0, 0f));
+        }
+
+        /**
+         * @return The transport independent request this request carries.
+         */
+        public HttpRequest getHttpRequest() {
+            return _request;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return _request.getHeaders();
+        }
+
+        @Override
+        public String getBodyContentType() {
+            return _request.getContentType();
+        }
+
+        @Override
+        public Request.Priority getPriority() {
+            switch (_request.getPriority()) {
+                case LOW:
+                    return Request.Priority.LOW;
+                case HIGH:
+                    return Request.Priority.HIGH;
+                case IMMEDIATE:
+                    return Request.Priority.IMMEDIATE;
+                case NORMAL:
+                default:
+                    return Request.Priority.NORMAL;
+            }
+        }
+
+        @Override
+        public byte[] getBody() {
+            return _request.getBody();
+        }
+
+        @Override
+        protected Response<HttpResponse> parseNetworkResponse(final NetworkResponse response) {
+            return Response.success(
+                    new HttpResponse(response.statusCode, response.headers, response.data),
+                    null);
+        }
+
+        @Override
+        protected void deliverResponse(final HttpResponse response) {
+            _listener.onResponse(response);
+        }
+    }
 }
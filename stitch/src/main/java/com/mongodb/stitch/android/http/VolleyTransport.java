@@ -0,0 +1,149 @@
+package com.mongodb.stitch.android.http;
+
+import android.content.Context;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+import com.mongodb.stitch.android.StitchError;
+import com.mongodb.stitch.android.StitchException;
+
+/**
+ * VolleyTransport is the default {@link Transport}. It executes requests on a Volley
+ * {@link RequestQueue} and delivers results on the main thread.
+ *
+ * Every queue runs its own network dispatcher threads, so clients should share a transport
+ * rather than create one each. {@link #getShared()} is the transport clients use by default.
+ */
+public class VolleyTransport implements Transport {
+
+    /**
+     * The number of network dispatcher threads of a queue unless specified otherwise.
+     */
+    public static final int DEFAULT_THREAD_POOL_SIZE = 4;
+
+    private static VolleyTransport sharedTransport;
+
+    private final RequestQueue _queue;
+
+    /**
+     * Creates a transport with {@link #DEFAULT_THREAD_POOL_SIZE} network dispatcher threads.
+     *
+     * @param context Ignored; responses are not cached by Volley, so no storage is needed.
+     * @deprecated Use {@link #VolleyTransport(int)} to choose the size of the dispatcher pool,
+     * or share {@link #getShared()}.
+     */
+    @Deprecated
+    public VolleyTransport(final Context context) {
+        this(DEFAULT_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * @param threadPoolSize The number of network dispatcher threads, which bounds how many
+     *                       requests are executed at once.
+     */
+    public VolleyTransport(final int threadPoolSize) {
+        this(newRequestQueue(threadPoolSize));
+    }
+
+    /**
+     * @param queue The request queue to execute requests on.
+     */
+    public VolleyTransport(final RequestQueue queue) {
+        _queue = queue;
+    }
+
+    /**
+     * @return The process wide transport shared by all clients that are not given their own.
+     */
+    public static synchronized VolleyTransport getShared() {
+        if (sharedTransport == null) {
+            sharedTransport = new VolleyTransport(DEFAULT_THREAD_POOL_SIZE);
+        }
+        return sharedTransport;
+    }
+
+    /**
+     * @return The request queue requests are executed on.
+     */
+    public RequestQueue getRequestQueue() {
+        return _queue;
+    }
+
+    @Override
+    public void execute(final HttpRequest request, final Listener listener) {
+        _queue.add(new Volley.TransportRequest(
+                request,
+                new Response.Listener<HttpResponse>() {
+                    @Override
+                    public void onResponse(final HttpResponse response) {
+                        listener.onResponse(response);
+                    }
+                },
+                new Response.ErrorListener() {
+                    @Override
+                    public void onErrorResponse(final VolleyError error) {
+                        StitchException.StitchRequestException requestError;
+                        try {
+                            requestError = parseRequestError(error);
+                        } catch (final StitchException.StitchRequestException e) {
+                            requestError = e;
+                        }
+                        listener.onError(requestError);
+                    }
+                }));
+    }
+
+    @Override
+    public void cancelAll(final Object tag) {
+        _queue.cancelAll(tag);
+    }
+
+    @Override
+    public void cancel(final HttpRequest request) {
+        _queue.cancelAll(new RequestQueue.RequestFilter() {
+            @Override
+            public boolean apply(final Request<?> queued) {
+                return queued instanceof Volley.TransportRequest &&
+                        ((Volley.TransportRequest) queued).getHttpRequest() == request;
+            }
+        });
+    }
+
+    /**
+     * Parses a network request error, looking for any embedded errors or codes. This replaces
+     * StitchError.parseRequestError(VolleyError), which could not stay in the stitch-core module
+     * since it depends on Volley.
+     *
+     * @param error The network error.
+     * @return An exception describing the network error.
+     */
+    public static StitchException.StitchRequestException parseRequestError(final VolleyError error) {
+
+        if (error.networkResponse == null) {
+            return new StitchException.StitchRequestException(error);
+        }
+
+        return StitchError.parseRequestError(new HttpResponse(
+                error.networkResponse.statusCode,
+                error.networkResponse.headers,
+                error.networkResponse.data),
+                error);
+    }
+
+    private static RequestQueue newRequestQueue(final int threadPoolSize) {
+        if (threadPoolSize < 1) {
+            throw new IllegalArgumentException("threadPoolSize must be positive");
+        }
+
+        // Caching is handled by ResponseCache, so skip Volley's disk cache entirely
+        final RequestQueue queue = new RequestQueue(
+                new NoCache(), new BasicNetwork(new HurlStack()), threadPoolSize);
+        queue.start();
+        return queue;
+    }
+}
@@ -4,9 +4,9 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.Volley;
 import com.google.android.gms.tasks.Task;
 import com.mongodb.stitch.android.StitchClient;
+import com.mongodb.stitch.android.http.VolleyTransport;
 
 import org.bson.Document;
 
@@ -31,6 +31,12 @@ public abstract class PushClient {
     static final String PREF_CONFIGS = "gcm.configs";
 
     protected final Routes routes;
+    /**
+     * @deprecated Requests to Stitch are made through the {@link StitchClient}'s transport.
+     * This is the queue of the process wide {@link VolleyTransport#getShared()} transport, kept
+     * for subclasses that add Volley requests of their own.
+     */
+    @Deprecated
     protected final RequestQueue queue;
 
     private final StitchClient _stitchClient;
@@ -48,7 +54,7 @@ public abstract class PushClient {
         _stitchClient = stitchClient;
         _context = context;
 
-        queue = Volley.newRequestQueue(context);
+        queue = VolleyTransport.getShared().getRequestQueue();
         routes = new Routes();
 
         final String globPrefPath = String.format(SHARED_PREFERENCES_NAME, getStitchClient().getAppId());
@@ -17,8 +17,10 @@ import com.google.android.gms.tasks.Continuation;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.TaskCompletionSource;
+import com.mongodb.stitch.android.RequestOptions;
 import com.mongodb.stitch.android.StitchClient;
 import com.mongodb.stitch.android.StitchException;
+import com.mongodb.stitch.android.http.Priority;
 import com.mongodb.stitch.android.http.Volley;
 import com.mongodb.stitch.android.push.PushClient;
 
@@ -44,6 +46,10 @@ public class GCMPushClient extends PushClient {
     private static final String PROP_GCM_SERVICE_NAME = "push.gcm.service";
     private static final String PROP_GCM_SENDER_ID = "push.gcm.senderId";
 
+    // Registration is background work that must not hold up requests the user is waiting on
+    private static final RequestOptions BACKGROUND_OPTIONS =
+            new RequestOptions.Builder().withPriority(Priority.LOW).build();
+
     private final GCMPushProviderInfo _info;
 
     /**
@@ -307,7 +313,8 @@ public class GCMPushClient extends PushClient {
         return getStitchClient().executeRequest(
                 Request.Method.PUT,
                 routes.getPushProvidersRegistrationRoute(this._info.getService()),
-                parameters.toJson()
+                parameters.toJson(),
+                BACKGROUND_OPTIONS
         ).continueWith(new Continuation<String, Void>() {
             @Override
             public Void then(@NonNull Task<String> task) throws Exception {
@@ -327,7 +334,9 @@ public class GCMPushClient extends PushClient {
     private Task<Void> deregisterWithServer() {
         return getStitchClient().executeRequest(
                 Request.Method.DELETE,
-                routes.getPushProvidersRegistrationRoute(this._info.getService())
+                routes.getPushProvidersRegistrationRoute(this._info.getService()),
+                null,
+                BACKGROUND_OPTIONS
         ).continueWith(new Continuation<String, Void>() {
             @Override
             public Void then(@NonNull Task<String> task) throws Exception {
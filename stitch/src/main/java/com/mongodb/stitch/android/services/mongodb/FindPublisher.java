@@ -0,0 +1,297 @@
+package com.mongodb.stitch.android.services.mongodb;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.codecs.BsonTypeClassMap;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FindPublisher emits the result of a find a page at a time, with keyset pagination on
+ * {@code _id}: each page asks for the documents sorted after the last one emitted. A page is
+ * requested only when the documents already fetched have been emitted and the subscriber has
+ * outstanding demand, so at most one page is buffered per subscription.
+ *
+ * A {@code $gt} comparison only matches values of the same BSON type, so the documents must all
+ * have {@code _id}s of one type, e.g. all ObjectIds; numbers of different widths count as one
+ * type. A page with {@code _id}s of several types fails the subscription, and so does a document
+ * with an {@code _id} of another type found by a final query after the last page, rather than
+ * the documents of the other types being silently skipped.
+ */
+class FindPublisher implements Publisher<Document> {
+    static final String ID = "_id";
+    private static final Document SORT_BY_ID = new Document(ID, 1);
+    private static final Document ID_ONLY = new Document(ID, 1);
+    private static final BsonTypeClassMap BSON_TYPE_CLASS_MAP = new BsonTypeClassMap();
+
+    private final MongoClient.Collection _collection;
+    private final Document _query;
+    @Nullable
+    private final Document _projection;
+    private final int _pageSize;
+    private final Executor _executor;
+
+    /**
+     * @param collection The collection to find documents in.
+     * @param query      The query specifier.
+     * @param projection The projection document, or null for whole documents.
+     * @param pageSize   The maximum amount of documents to fetch per request.
+     * @param executor   The executor page results are handled on.
+     */
+    FindPublisher(
+            final MongoClient.Collection collection,
+            final Document query,
+            @Nullable final Document projection,
+            final int pageSize,
+            final Executor executor
+    ) {
+        _collection = collection;
+        _query = query;
+        _projection = projection;
+        _pageSize = pageSize;
+        _executor = executor;
+    }
+
+    /**
+     * @param projection A projection document.
+     * @return Whether or not the projection leaves out the {@code _id} of documents.
+     */
+    static boolean excludesId(final Document projection) {
+        final Object id = projection.get(ID);
+        return Boolean.FALSE.equals(id) || (id instanceof Number && ((Number) id).intValue() == 0);
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super Document> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        subscriber.onSubscribe(new PageSubscription(subscriber));
+    }
+
+    /**
+     * PageSubscription delivers fetched documents against the subscriber's demand. Signals to
+     * the subscriber only happen from {@link #drain()}, which a single thread runs at a time, so
+     * they are never concurrent even though demand and pages arrive from different threads.
+     */
+    private class PageSubscription implements Subscription {
+        private final Subscriber<? super Document> _subscriber;
+        private final Queue<Document> _buffer;
+        private final AtomicLong _requested;
+        private final AtomicInteger _drains;
+        private volatile boolean _cancelled;
+        private volatile boolean _fetching;
+        private volatile boolean _exhausted;
+        private volatile Throwable _error;
+        private Object _lastId;
+        private Class<?> _idType;
+        @Nullable
+        private Object _idTypeAlias;
+
+        private PageSubscription(final Subscriber<? super Document> subscriber) {
+            _subscriber = subscriber;
+            _buffer = new ConcurrentLinkedQueue<>();
+            _requested = new AtomicLong();
+            _drains = new AtomicInteger();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                _error = new IllegalArgumentException("Requested a non-positive number of documents: " + n);
+                _buffer.clear();
+                drain();
+                return;
+            }
+
+            long requested;
+            long next;
+            do {
+                requested = _requested.get();
+                next = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            } while (!_requested.compareAndSet(requested, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            _cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (_drains.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                if (_cancelled) {
+                    _buffer.clear();
+                } else {
+                    emit();
+                }
+                missed = _drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            final long requested = _requested.get();
+            long emitted = 0;
+            while (emitted != requested && !_cancelled) {
+                final Document document = _buffer.poll();
+                if (document == null) {
+                    break;
+                }
+                _subscriber.onNext(document);
+                emitted++;
+            }
+            if (emitted != 0 && requested != Long.MAX_VALUE) {
+                _requested.addAndGet(-emitted);
+            }
+
+            if (_cancelled || !_buffer.isEmpty()) {
+                return;
+            }
+            if (_error != null) {
+                _cancelled = true;
+                _subscriber.onError(_error);
+            } else if (_exhausted) {
+                _cancelled = true;
+                _subscriber.onComplete();
+            } else if (_requested.get() > 0 && !_fetching) {
+                fetchPage();
+            }
+        }
+
+        private void fetchPage() {
+            _fetching = true;
+            final Document query = _lastId == null ? _query : new Document("$and", Arrays.asList(
+                    _query, new Document(ID, new Document("$gt", _lastId))));
+
+            _collection.find(query, _projection, SORT_BY_ID, _pageSize).addOnCompleteListener(
+                    _executor,
+                    new OnCompleteListener<List<Document>>() {
+                        @Override
+                        public void onComplete(@NonNull final Task<List<Document>> task) {
+                            if (task.isSuccessful()) {
+                                final List<Document> page = task.getResult();
+                                onPage(page);
+                                if (page.size() < _pageSize && _error == null) {
+                                    checkIdTypes();
+                                    return;
+                                }
+                            } else {
+                                _error = task.getException();
+                            }
+                            _fetching = false;
+                            drain();
+                        }
+                    });
+        }
+
+        private void onPage(final List<Document> page) {
+            for (final Document document : page) {
+                final Object id = document.get(ID);
+                if (id == null) {
+                    _error = new IllegalStateException("Documents must have an _id to be paged through");
+                    return;
+                }
+                if (_idType == null) {
+                    _idType = getIdType(id);
+                    _idTypeAlias = getIdTypeAlias(id);
+                } else if (_idType != getIdType(id)) {
+                    _error = newMixedIdTypesError(_idType, getIdType(id));
+                    return;
+                }
+            }
+
+            if (!page.isEmpty()) {
+                _lastId = page.get(page.size() - 1).get(ID);
+                _buffer.addAll(page);
+            }
+        }
+
+        /**
+         * Runs once the last page has been fetched. Paging with {@code $gt} cannot reach
+         * documents whose {@code _id} is of another type than the ones emitted, so look for any
+         * such document to fail the subscription rather than complete it without them.
+         */
+        private void checkIdTypes() {
+            if (_idTypeAlias == null) {
+                // Nothing was emitted, or the type cannot be queried for
+                _exhausted = true;
+                _fetching = false;
+                drain();
+                return;
+            }
+
+            final Document query = new Document("$and", Arrays.asList(
+                    _query, new Document(ID, new Document("$not", new Document("$type", _idTypeAlias)))));
+            _collection.find(query, ID_ONLY, SORT_BY_ID, 1).addOnCompleteListener(
+                    _executor,
+                    new OnCompleteListener<List<Document>>() {
+                        @Override
+                        public void onComplete(@NonNull final Task<List<Document>> task) {
+                            if (!task.isSuccessful()) {
+                                _error = task.getException();
+                            } else if (!task.getResult().isEmpty()) {
+                                _error = newMixedIdTypesError(
+                                        _idType, getIdType(task.getResult().get(0).get(ID)));
+                            } else {
+                                _exhausted = true;
+                            }
+                            _fetching = false;
+                            drain();
+                        }
+                    });
+        }
+    }
+
+    private static IllegalStateException newMixedIdTypesError(final Class<?> type, final Class<?> otherType) {
+        return new IllegalStateException(String.format(
+                "Documents must have _ids of a single type to be paged through, found %s and %s",
+                type.getSimpleName(), otherType.getSimpleName()));
+    }
+
+    /**
+     * @return The type of an {@code _id} as far as a {@code $gt} comparison is concerned.
+     */
+    private static Class<?> getIdType(final Object id) {
+        // The server compares ints, longs, doubles and decimals with each other
+        return id instanceof Number ? Number.class : id.getClass();
+    }
+
+    /**
+     * @return The {@code $type} that matches an {@code _id} and every other {@code _id} a
+     * {@code $gt} comparison with it can match, or null if there is none.
+     */
+    @Nullable
+    private static Object getIdTypeAlias(final Object id) {
+        if (id instanceof Number) {
+            return "number";
+        }
+        for (final BsonType type : BsonType.values()) {
+            final Class<?> typeClass = BSON_TYPE_CLASS_MAP.get(type);
+            if (typeClass != null && typeClass.isInstance(id)) {
+                return type.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -1,16 +1,24 @@
 package com.mongodb.stitch.android.services.mongodb;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 
 import com.google.android.gms.tasks.Continuation;
 import com.google.android.gms.tasks.Task;
+import com.mongodb.stitch.android.CancellationToken;
+import com.mongodb.stitch.android.RequestOptions;
+import com.mongodb.stitch.android.RetryPolicy;
 import com.mongodb.stitch.android.StitchClient;
+import com.mongodb.stitch.android.http.Priority;
 
 import org.bson.Document;
+import org.reactivestreams.Publisher;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MongoClient provides a simple wrapper around pipelines to enable CRUD usage of
@@ -21,6 +29,7 @@ public class MongoClient {
 
     private final StitchClient _stitchClient;
     private final String _service;
+    private volatile RetryPolicy _retryPolicy;
 
     /**
      * @param stitchClient The client to execute with.
@@ -41,6 +50,28 @@ public class MongoClient {
         return new Database(this, name);
     }
 
+    /**
+     * @return The {@link RetryPolicy} reads and retried writes through this client are retried
+     * with, or null if the policy of the underlying {@link StitchClient} is used.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return _retryPolicy;
+    }
+
+    /**
+     * Sets the {@link RetryPolicy} reads through this client are retried with. Writes are only
+     * retried through collections obtained with {@link Collection#withRetriedWrites()} or
+     * {@link Collection#withReplayableWrites()}, which give each write an idempotency key, and
+     * then only after failures that show Stitch did not apply them; see
+     * {@link RetryPolicy#isNotApplied(Exception)}.
+     *
+     * @param retryPolicy The policy to retry reads and keyed writes with, or null to use the
+     *                    policy of the underlying {@link StitchClient}.
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        _retryPolicy = retryPolicy;
+    }
+
     /**
      * Database represents a reference to a MongoDB database accessed through Stitch.
      */
@@ -74,14 +105,132 @@ public class MongoClient {
     public static class Collection {
         private final Database _database;
         private final String _collName;
+        private final RequestOptions _options;
+        private final boolean _retryWrites;
 
         /**
          * @param database The database to which this collection is contained in.
          * @param collName The name of the collection.
          */
         public Collection(final Database database, final String collName) {
+            this(database, collName, RequestOptions.DEFAULT, false);
+        }
+
+        private Collection(
+                final Database database,
+                final String collName,
+                final RequestOptions options,
+                final boolean retryWrites
+        ) {
             _database = database;
             _collName = collName;
+            _options = options;
+            _retryWrites = retryWrites;
+        }
+
+        /**
+         * Gets a reference to this collection whose operations are executed with the given
+         * priority, e.g. {@link Priority#HIGH} for reads backing a visible screen or
+         * {@link Priority#LOW} for background sync.
+         *
+         * @param priority The priority of operations relative to other pending requests.
+         * @return A reference to this collection with the given priority.
+         */
+        public Collection withPriority(final Priority priority) {
+            return new Collection(
+                    _database, _collName, _options.newBuilder().withPriority(priority).build(), _retryWrites);
+        }
+
+        /**
+         * Gets a reference to this collection whose operations can be cancelled through the
+         * given token, e.g. one that is cancelled when the screen using them goes away.
+         *
+         * @param cancellationToken The token operations can be cancelled through.
+         * @return A reference to this collection with the given cancellation token.
+         */
+        public Collection withCancellationToken(final CancellationToken cancellationToken) {
+            return new Collection(
+                    _database,
+                    _collName,
+                    _options.newBuilder().withCancellationToken(cancellationToken).build(),
+                    _retryWrites);
+        }
+
+        /**
+         * Gets a reference to this collection whose operations are cancelled if they take
+         * longer than the given duration.
+         *
+         * @param duration How long an operation may take, or 0 for no deadline.
+         * @param unit     The unit of the duration.
+         * @return A reference to this collection with the given deadline.
+         */
+        public Collection withDeadline(final long duration, final TimeUnit unit) {
+            return new Collection(
+                    _database, _collName, _options.newBuilder().withDeadline(duration, unit).build(), _retryWrites);
+        }
+
+        /**
+         * Gets a reference to this collection whose writes are queued in the client's
+         * {@link com.mongodb.stitch.android.Outbox} and replayed later if Stitch cannot be
+         * reached. The tasks of queued writes are not resolved until they have been replayed.
+         *
+         * @return A reference to this collection with replayable writes.
+         */
+        public Collection withReplayableWrites() {
+            return new Collection(_database, _collName, _options.newBuilder().withReplayable(true).build(), _retryWrites);
+        }
+
+        /**
+         * Gets a reference to this collection whose writes are retried according to the
+         * client's {@link RetryPolicy}. Each write is given an idempotency key, and is only
+         * retried after failures that show Stitch did not apply it, e.g. when the connection
+         * could not be established; a write that timed out is not retried since it may have
+         * been applied.
+         *
+         * @return A reference to this collection with retried writes.
+         */
+        public Collection withRetriedWrites() {
+            return new Collection(_database, _collName, _options, true);
+        }
+
+        /**
+         * @return The priority operations on this collection are executed with.
+         */
+        public Priority getPriority() {
+            return _options.getPriority();
+        }
+
+        /**
+         * @return How long operations on this collection may take, in milliseconds, or 0 if
+         * they have no deadline.
+         */
+        public long getDeadlineMillis() {
+            return _options.getDeadlineMillis();
+        }
+
+        private RequestOptions getReadOptions() {
+            final RequestOptions.Builder builder = _options.newBuilder()
+                    .withIdempotentRead(true)
+                    .withReplayable(false);
+            if (_options.getRetryPolicy() == null) {
+                builder.withRetryPolicy(_database._client._retryPolicy);
+            }
+            return builder.build();
+        }
+
+        private RequestOptions getWriteOptions() {
+            if (!_retryWrites && !_options.isReplayable()) {
+                return _options;
+            }
+
+            final RequestOptions.Builder builder = _options.newBuilder();
+            if (_retryWrites && _options.getIdempotencyKey() == null) {
+                builder.withIdempotencyKey(UUID.randomUUID().toString());
+            }
+            if (_options.getRetryPolicy() == null) {
+                builder.withRetryPolicy(_database._client._retryPolicy);
+            }
+            return builder.build();
         }
 
         /**
@@ -106,6 +255,67 @@ public class MongoClient {
          * of the request.
          */
         public Task<List<Document>> find(final Document query, final Document projection, final Integer limit) {
+            return find(query, projection, null, limit);
+        }
+
+        /**
+         * Finds documents matching a query and emits them as a subscriber requests them, a page
+         * at a time, rather than holding the whole result in memory. A page is only fetched
+         * once the previous one has been consumed and more documents have been requested, so
+         * the first documents can be processed while the rest are still on the server.
+         *
+         * Documents are emitted in {@code _id} order. Each page is a separate request, so
+         * documents written while the result is being consumed may or may not be included.
+         *
+         * Pages are requested with {@code _id} greater than the last one emitted, which only
+         * matches {@code _id}s of the same BSON type. The matched documents must therefore all
+         * have {@code _id}s of one type, e.g. all ObjectIds or all numbers. After the last page,
+         * one more request checks for documents with an {@code _id} of another type. If the
+         * result mixes types, the subscriber is failed with an {@link IllegalStateException}
+         * instead of being completed without the documents that could not be paged to.
+         *
+         * @param query    The query specifier.
+         * @param pageSize The maximum amount of documents to fetch per request.
+         * @return A publisher of the matched documents; each subscriber runs the query anew.
+         */
+        public Publisher<Document> findPublisher(final Document query, final int pageSize) {
+            return findPublisher(query, null, pageSize);
+        }
+
+        /**
+         * Finds and projects documents matching a query and emits them as a subscriber requests
+         * them, a page at a time. See {@link #findPublisher(Document, int)}.
+         *
+         * @param query      The query specifier.
+         * @param projection The projection document, which must not exclude {@code _id}.
+         * @param pageSize   The maximum amount of documents to fetch per request.
+         * @return A publisher of the matched and projected documents; each subscriber runs the
+         * query anew.
+         */
+        public Publisher<Document> findPublisher(
+                final Document query,
+                @Nullable final Document projection,
+                final int pageSize
+        ) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize must be positive");
+            }
+            if (projection != null && FindPublisher.excludesId(projection)) {
+                throw new IllegalArgumentException("projection must not exclude _id, which results are paged by");
+            }
+            return new FindPublisher(
+                    this, query, projection, pageSize, _database._client._stitchClient.getDecodeExecutor());
+        }
+
+        /**
+         * Finds, projects and sorts documents matching a query up to the specified limit.
+         */
+        Task<List<Document>> find(
+                final Document query,
+                @Nullable final Document projection,
+                @Nullable final Document sort,
+                final Integer limit
+        ) {
             Document doc = new Document(Parameters.QUERY, query);
             doc.put(Parameters.DATABASE, _database._dbName);
             doc.put(Parameters.COLLECTION, _collName);
@@ -114,10 +324,13 @@ public class MongoClient {
             if (projection != null) {
                 doc.put(Parameters.PROJECT, projection);
             }
+            if (sort != null) {
+                doc.put(Parameters.SORT, sort);
+            }
 
             return _database._client._stitchClient.executeServiceFunction(
-                "find", _database._client._service, doc
-            ).continueWith(new Continuation<Object, List<Document>>() {
+                "find", _database._client._service, getReadOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, List<Document>>() {
                 @Override
                 public List<Document> then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -163,8 +376,8 @@ public class MongoClient {
             }
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "count", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Long>() {
+                    "count", _database._client._service, getReadOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Long>() {
                 @Override
                 public Long then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -210,8 +423,8 @@ public class MongoClient {
             doc.put(Parameters.UPSERT, upsert);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "updateOne", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "updateOne", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -254,8 +467,8 @@ public class MongoClient {
             doc.put(Parameters.MULTI, true);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "updateMany", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "updateMany", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -280,8 +493,8 @@ public class MongoClient {
             doc.put(Parameters.COLLECTION, _collName);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "insertOne", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "insertOne", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -306,8 +519,8 @@ public class MongoClient {
             doc.put(Parameters.COLLECTION, _collName);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "insertMany", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "insertMany", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -333,8 +546,8 @@ public class MongoClient {
             doc.put(Parameters.COLLECTION, _collName);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "deleteOne", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "deleteOne", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -360,8 +573,8 @@ public class MongoClient {
             doc.put(Parameters.SINGLE_DOCUMENT, false);
 
             return _database._client._stitchClient.executeServiceFunction(
-                    "deleteMany", _database._client._service, doc
-            ).continueWith(new Continuation<Object, Document>() {
+                    "deleteMany", _database._client._service, getWriteOptions(), doc
+            ).continueWith(_database._client._stitchClient.getDecodeExecutor(), new Continuation<Object, Document>() {
                 @Override
                 public Document then(@NonNull Task<Object> task) throws Exception {
                     if (task.isSuccessful()) {
@@ -384,6 +597,7 @@ public class MongoClient {
             private static final String PROJECT = "project";
             private static final String SINGLE_DOCUMENT = "singleDoc";
             private static final String LIMIT = "limit";
+            private static final String SORT = "sort";
         }
     }
 }
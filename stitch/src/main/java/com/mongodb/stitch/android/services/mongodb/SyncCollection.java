@@ -0,0 +1,176 @@
+package com.mongodb.stitch.android.services.mongodb;
+
+import com.mongodb.stitch.android.SyncStitchClient;
+
+import org.bson.Document;
+
+import java.util.List;
+
+import static com.mongodb.stitch.android.SyncStitchClient.await;
+
+/**
+ * SyncCollection is a blocking facade over a {@link MongoClient.Collection}, for use from
+ * worker threads. Operations carry the priority, deadline, cancellation token and replayable
+ * writes setting of the wrapped collection, and fail with the same
+ * {@link com.mongodb.stitch.android.StitchException}s its tasks would.
+ *
+ * As with {@link SyncStitchClient}, this facade only runs on Android, each operation blocks its
+ * calling thread until it completes or its wait times out, and operations throw an
+ * {@link IllegalStateException} when called from the main thread.
+ *
+ * @see SyncStitchClient
+ */
+public class SyncCollection {
+    private final MongoClient.Collection _collection;
+
+    /**
+     * @param collection The collection to execute operations on.
+     */
+    public SyncCollection(final MongoClient.Collection collection) {
+        _collection = collection;
+    }
+
+    /**
+     * @return The collection operations are executed on.
+     */
+    public MongoClient.Collection getCollection() {
+        return _collection;
+    }
+
+    /**
+     * Finds documents matching a query up to the specified limit.
+     *
+     * @param query      The query specifier.
+     * @param limit      The maximum amount of matching documents to accept.
+     * @return The matched documents.
+     */
+    public List<Document> find(final Document query, final Integer limit) {
+        return await(_collection.find(query, limit), getTimeoutMillis());
+    }
+
+    /**
+     * Finds and projects documents matching a query up to the specified limit.
+     *
+     * @param query      The query specifier.
+     * @param projection The projection document.
+     * @param limit      The maximum amount of matching documents to accept.
+     * @return The matched and projected documents.
+     */
+    public List<Document> find(final Document query, final Document projection, final Integer limit) {
+        return await(_collection.find(query, projection, limit), getTimeoutMillis());
+    }
+
+    /**
+     * Counts the number of documents matching a query.
+     *
+     * @param query The query specifier.
+     * @return The number of matched documents.
+     */
+    public long count(final Document query) {
+        return await(_collection.count(query), getTimeoutMillis());
+    }
+
+    /**
+     * Counts the number of documents matching a query and projection.
+     *
+     * @param query      The query specifier.
+     * @param projection The projection document.
+     * @return The number of matched documents.
+     */
+    public long count(final Document query, final Document projection) {
+        return await(_collection.count(query, projection), getTimeoutMillis());
+    }
+
+    /**
+     * Updates a single document matching a query
+     *
+     * @param query  The query specifier.
+     * @param update The update specifier.
+     * @return The result of the update.
+     */
+    public Document updateOne(final Document query, final Document update) {
+        return await(_collection.updateOne(query, update), getTimeoutMillis());
+    }
+
+    /**
+     * Updates a single document matching the query specifier.
+     *
+     * @param query  The query specifier.
+     * @param update The update specifier.
+     * @param upsert Whether or not to upsert if the query matches no documents.
+     * @return The result of the update.
+     */
+    public Document updateOne(final Document query, final Document update, final boolean upsert) {
+        return await(_collection.updateOne(query, update, upsert), getTimeoutMillis());
+    }
+
+    /**
+     * Updates many documents matching a query specifier.
+     *
+     * @param query  The query specifier.
+     * @param update The update specifier.
+     * @return The result of the update.
+     */
+    public Document updateMany(final Document query, final Document update) {
+        return await(_collection.updateMany(query, update), getTimeoutMillis());
+    }
+
+    /**
+     * Updates many documents matching a query specifier.
+     *
+     * @param query  The query specifier.
+     * @param update The update specifier.
+     * @param upsert Whether or not to upsert if the query matches no documents.
+     * @return The result of the update.
+     */
+    public Document updateMany(final Document query, final Document update, final boolean upsert) {
+        return await(_collection.updateMany(query, update, upsert), getTimeoutMillis());
+    }
+
+    /**
+     * Inserts a single document.
+     *
+     * @param document The document to insert.
+     * @return The result of the insertion.
+     */
+    public Document insertOne(final Document document) {
+        return await(_collection.insertOne(document), getTimeoutMillis());
+    }
+
+    /**
+     * Inserts many documents.
+     *
+     * @param documents The list of documents to insert.
+     * @return The result of the insertion.
+     */
+    public Document insertMany(final List<Document> documents) {
+        return await(_collection.insertMany(documents), getTimeoutMillis());
+    }
+
+    /**
+     * Deletes a single document matching the query specifier.
+     *
+     * @param query The query specifier.
+     * @return The result of the deletion.
+     */
+    public Document deleteOne(final Document query) {
+        return await(_collection.deleteOne(query), getTimeoutMillis());
+    }
+
+    /**
+     * Deletes many documents matching a query specifier.
+     *
+     * @param query The query specifier.
+     * @return The result of the deletion.
+     */
+    public Document deleteMany(final Document query) {
+        return await(_collection.deleteMany(query), getTimeoutMillis());
+    }
+
+    /**
+     * @return How long to wait for an operation on the collection.
+     */
+    private long getTimeoutMillis() {
+        return SyncStitchClient.getTimeoutMillis(_collection.getDeadlineMillis());
+    }
+}